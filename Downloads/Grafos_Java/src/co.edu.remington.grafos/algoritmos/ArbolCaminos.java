@@ -0,0 +1,115 @@
+package co.edu.remington.grafos.algoritmos;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+
+import java.util.*;
+
+/**
+ * Árbol de caminos mínimos desde un origen, inmutable y compartible entre
+ * hilos. Guarda solo arreglos primitivos (anterior y distancia por índice
+ * compacto), así que, como cualquier resultado indexado, deja de ser válido
+ * si se reordenan los índices del grafo.
+ *
+ * Extraer un camino cuesta O(longitud): se mide la profundidad del destino
+ * y se llena un long[] de atrás hacia adelante. Los nombres de los municipios
+ * solo se buscan al formatear.
+ */
+public final class ArbolCaminos {
+
+    private final GrafoCasanare grafo;
+    private final int raiz;           // índice compacto del origen
+    private final int[] anterior;     // -1 = sin predecesor
+    private final double[] dist;      // Double.MAX_VALUE = inalcanzable
+
+    /**
+     * Los arreglos pasan a ser del árbol: quien lo crea no debe modificarlos después.
+     */
+    ArbolCaminos(GrafoCasanare grafo, int raiz, int[] anterior, double[] dist) {
+        this.grafo = grafo;
+        this.raiz = raiz;
+        this.anterior = anterior;
+        this.dist = dist;
+    }
+
+    public long getOrigen() {
+        return grafo.getIdExterno(raiz);
+    }
+
+    /** Distancia mínima al municipio (ID externo), o Double.MAX_VALUE si no se alcanza. */
+    public double getDistancia(long destino) {
+        return dist[grafo.getIndice(destino)];
+    }
+
+    public boolean esAlcanzable(long destino) {
+        return dist[grafo.getIndice(destino)] != Double.MAX_VALUE;
+    }
+
+    // =============================================
+    //  EXTRACCIÓN DE CAMINOS
+    // =============================================
+
+    /**
+     * Camino del origen al destino como IDs externos, en O(longitud).
+     * Retorna un arreglo vacío si el destino no es alcanzable.
+     */
+    public long[] camino(long destino) {
+        int t = grafo.getIndice(destino);
+        if (dist[t] == Double.MAX_VALUE) return new long[0];
+        int longitud = 0;
+        for (int v = t; v != -1; v = anterior[v]) longitud++;
+        long[] camino = new long[longitud];
+        for (int v = t, i = longitud - 1; v != -1; v = anterior[v], i--) camino[i] = grafo.getIdExterno(v);
+        return camino;
+    }
+
+    /** Número de municipios del camino (0 si el destino no es alcanzable). */
+    public int longitud(long destino) {
+        int t = grafo.getIndice(destino);
+        if (dist[t] == Double.MAX_VALUE) return 0;
+        int longitud = 0;
+        for (int v = t; v != -1; v = anterior[v]) longitud++;
+        return longitud;
+    }
+
+    /**
+     * Recorre el camino del destino hacia el origen sin materializarlo: cada
+     * paso sigue un predecesor. Útil para buscar o contar sin copiar.
+     */
+    public Iterable<Long> haciaOrigen(long destino) {
+        int t = grafo.getIndice(destino);
+        int inicio = dist[t] == Double.MAX_VALUE ? -1 : t;
+        return () -> new PrimitiveIterator.OfLong() {
+            private int v = inicio;
+
+            @Override
+            public boolean hasNext() {
+                return v != -1;
+            }
+
+            @Override
+            public long nextLong() {
+                if (v == -1) throw new NoSuchElementException();
+                long id = grafo.getIdExterno(v);
+                v = anterior[v];
+                return id;
+            }
+        };
+    }
+
+    // =============================================
+    //  FORMATO
+    // =============================================
+
+    /**
+     * "Origen -> ... -> Destino" con los nombres de los municipios.
+     */
+    public String formatear(long destino) {
+        StringBuilder sb = new StringBuilder();
+        long[] camino = camino(destino);
+        for (int i = 0; i < camino.length; i++) {
+            if (i > 0) sb.append(" -> ");
+            sb.append(grafo.getNombre(camino[i]));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,181 @@
+package co.edu.remington.grafos.algoritmos;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.Via;
+import co.edu.remington.grafos.utilidades.UnionFind;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Árbol de expansión mínima (o bosque, si el grafo no es conexo): el conjunto
+ * de vías más barato que mantiene conectados a todos los municipios que ya lo
+ * estaban. Sirve para priorizar el presupuesto de mantenimiento.
+ *
+ * Ofrece Kruskal (secuencial) y Borůvka paralelo. Ambos desempatan por
+ * (peso, idVia), así que con los mismos datos eligen exactamente las mismas vías.
+ */
+public class ArbolExpansionMinima {
+
+    private GrafoCasanare grafo;
+
+    public ArbolExpansionMinima(GrafoCasanare grafo) {
+        this.grafo = grafo;
+    }
+
+    // =============================================
+    //  RESULTADO
+    // =============================================
+
+    public static class Resultado {
+        public final List<Via> vias;        // mitad de ida de cada vía elegida
+        public final double costoTotal;
+        public final int numComponentes;    // 1 = árbol; > 1 = bosque
+
+        public Resultado(List<Via> vias, double costoTotal, int numComponentes) {
+            this.vias = vias;
+            this.costoTotal = costoTotal;
+            this.numComponentes = numComponentes;
+        }
+    }
+
+    // Vías activas en arreglos paralelos, indexadas 0..m-1
+    private static class Aristas {
+        int m;
+        int[] u, w;
+        double[] peso;
+        Via[] via;
+    }
+
+    private Aristas recolectar(boolean penalizar) {
+        List<Via> activas = new ArrayList<>();
+        for (int id = 0; id < grafo.getLimiteIdVia(); id++) {
+            Via v = grafo.getVia(id);
+            if (v != null && v.estaActiva()) activas.add(v);
+        }
+        Aristas a = new Aristas();
+        a.m = activas.size();
+        a.u = new int[a.m];
+        a.w = new int[a.m];
+        a.peso = new double[a.m];
+        a.via = activas.toArray(new Via[0]);
+        for (int e = 0; e < a.m; e++) {
+            Via v = a.via[e];
+            a.u[e] = v.getInversa().getIndiceDestino();
+            a.w[e] = v.getIndiceDestino();
+            a.peso[e] = penalizar ? v.getDistanciaPenalizada() : v.getDistancia();
+        }
+        return a;
+    }
+
+    // Orden total (peso, idVia): garantiza que Borůvka no forme ciclos con empates
+    private static int comparar(Aristas a, int e, int f) {
+        int c = Double.compare(a.peso[e], a.peso[f]);
+        return c != 0 ? c : Integer.compare(a.via[e].getIdVia(), a.via[f].getIdVia());
+    }
+
+    // =============================================
+    //  KRUSKAL
+    // =============================================
+
+    /**
+     * @param penalizar true = ponderar por getDistanciaPenalizada()
+     */
+    public Resultado kruskal(boolean penalizar) {
+        Aristas a = recolectar(penalizar);
+        Integer[] orden = new Integer[a.m];
+        for (int e = 0; e < a.m; e++) orden[e] = e;
+        Arrays.sort(orden, (e, f) -> comparar(a, e, f));
+
+        UnionFind uf = new UnionFind(grafo.getNumNodos());
+        List<Via> elegidas = new ArrayList<>();
+        double costo = 0;
+        for (int e : orden) {
+            if (uf.unir(a.u[e], a.w[e])) {
+                elegidas.add(a.via[e]);
+                costo += a.peso[e];
+            }
+        }
+        return new Resultado(elegidas, costo, uf.getNumConjuntos());
+    }
+
+    // =============================================
+    //  BORŮVKA PARALELO
+    // =============================================
+
+    /**
+     * En cada ronda, cada componente elige su vía saliente más barata. La
+     * búsqueda recorre las vías en paralelo y actualiza la mejor candidata
+     * de cada componente con CAS; la unión posterior es secuencial y barata
+     * (a lo sumo una vía por componente). Se necesitan O(log n) rondas.
+     */
+    public Resultado boruvkaParalelo(boolean penalizar) {
+        Aristas a = recolectar(penalizar);
+        int n = grafo.getNumNodos();
+        UnionFind uf = new UnionFind(n);
+        int[] comp = new int[n];
+        AtomicIntegerArray mejor = new AtomicIntegerArray(n);
+        List<Via> elegidas = new ArrayList<>();
+        double costo = 0;
+
+        boolean cambio = true;
+        while (cambio) {
+            for (int i = 0; i < n; i++) {
+                comp[i] = uf.buscar(i);
+                mejor.set(i, -1);
+            }
+
+            IntStream.range(0, a.m).parallel().forEach(e -> {
+                int cu = comp[a.u[e]], cw = comp[a.w[e]];
+                if (cu == cw) return;
+                proponer(mejor, cu, e, a);
+                proponer(mejor, cw, e, a);
+            });
+
+            cambio = false;
+            for (int c = 0; c < n; c++) {
+                int e = mejor.get(c);
+                if (e >= 0 && uf.unir(a.u[e], a.w[e])) {
+                    elegidas.add(a.via[e]);
+                    costo += a.peso[e];
+                    cambio = true;
+                }
+            }
+        }
+        return new Resultado(elegidas, costo, uf.getNumConjuntos());
+    }
+
+    private static void proponer(AtomicIntegerArray mejor, int comp, int e, Aristas a) {
+        while (true) {
+            int actual = mejor.get(comp);
+            if (actual >= 0 && comparar(a, actual, e) <= 0) return;
+            if (mejor.compareAndSet(comp, actual, e)) return;
+        }
+    }
+
+    // =============================================
+    //  MOSTRAR RESULTADO
+    // =============================================
+
+    public void mostrar(boolean penalizar) {
+        Resultado res = boruvkaParalelo(penalizar);
+        String modo = penalizar ? "PENALIZADA (estado vía)" : "REAL (km)";
+
+        System.out.println("\n======= " + (res.numComponentes > 1 ? "BOSQUE" : "ÁRBOL") +
+                " DE EXPANSIÓN MÍNIMA [Distancia " + modo + "] =======");
+        System.out.printf("%-40s %-10s %-10s%n", "Vía", "Costo", "Estado");
+        System.out.println("-".repeat(62));
+        for (Via v : res.vias) {
+            String nombre = grafo.getNombre(v.getInversa().getDestino()) + " <-> " + grafo.getNombre(v.getDestino());
+            double costo = penalizar ? v.getDistanciaPenalizada() : v.getDistancia();
+            System.out.printf("%-40s %-10.2f %-10s%n", nombre, costo, v.getEstado());
+        }
+        System.out.println("-".repeat(62));
+        System.out.printf("Vías seleccionadas: %d | Costo total: %.2f km%n", res.vias.size(), res.costoTotal);
+        if (res.numComponentes > 1) {
+            System.out.println("El grafo no es conexo: se muestra un bosque de " + res.numComponentes + " árboles.");
+        }
+        System.out.println("=".repeat(62) + "\n");
+    }
+}
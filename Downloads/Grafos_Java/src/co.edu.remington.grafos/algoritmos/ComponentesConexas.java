@@ -0,0 +1,116 @@
+package co.edu.remington.grafos.algoritmos;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.Via;
+import co.edu.remington.grafos.utilidades.UnionFindConcurrente;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Etiquetado de componentes conexas en paralelo: las vías activas se unen
+ * desde varios hilos sobre un union-find concurrente y luego cada municipio
+ * recibe el número de su componente. Sirve para redes importadas con muchas
+ * islas, donde esConexo() solo dice que algo falta.
+ */
+public class ComponentesConexas {
+
+    private GrafoCasanare grafo;
+
+    public ComponentesConexas(GrafoCasanare grafo) {
+        this.grafo = grafo;
+    }
+
+    // =============================================
+    //  RESULTADO
+    // =============================================
+
+    /**
+     * Componentes numeradas 0..c-1 según el menor índice compacto que
+     * contienen, de modo que el resultado no depende del reparto entre hilos.
+     */
+    public class Resultado {
+        public final int[] componente;   // por índice compacto
+        public final int[] tamanios;     // por número de componente
+
+        private Resultado(int[] componente, int[] tamanios) {
+            this.componente = componente;
+            this.tamanios = tamanios;
+        }
+
+        public int getNumComponentes() {
+            return tamanios.length;
+        }
+
+        /** Componente del municipio con el ID externo dado. */
+        public int getComponente(long id) {
+            return componente[grafo.getIndice(id)];
+        }
+
+        public boolean estanConectados(long a, long b) {
+            return getComponente(a) == getComponente(b);
+        }
+
+        public boolean esConexo() {
+            return tamanios.length <= 1;
+        }
+    }
+
+    public Resultado calcular() {
+        int n = grafo.getNumNodos();
+        UnionFindConcurrente uf = new UnionFindConcurrente(n);
+
+        // Cada vía aparece en ambos extremos; basta unir desde el de menor índice
+        IntStream.range(0, n).parallel().forEach(u -> {
+            for (Via v : grafo.getVecinos(u)) {
+                int w = v.getIndiceDestino();
+                if (u < w && v.estaActiva()) uf.unir(u, w);
+            }
+        });
+
+        // La raíz es el menor índice de cada conjunto: al recorrer en orden,
+        // cada raíz aparece antes que el resto de su componente
+        int[] componente = new int[n];
+        int[] tamanios = new int[n];
+        int c = 0;
+        for (int i = 0; i < n; i++) {
+            int r = uf.buscar(i);
+            componente[i] = r == i ? c++ : componente[r];
+            tamanios[componente[i]]++;
+        }
+        return new Resultado(componente, Arrays.copyOf(tamanios, c));
+    }
+
+    // =============================================
+    //  MOSTRAR RESULTADO
+    // =============================================
+
+    public void mostrar() {
+        mostrar(calcular());
+    }
+
+    /**
+     * Muestra un resultado ya calculado, sin volver a recorrer el grafo.
+     */
+    public void mostrar(Resultado res) {
+        Map<Integer, List<Long>> miembros = new TreeMap<>();
+        for (long id : grafo.getIds()) {
+            miembros.computeIfAbsent(res.getComponente(id), k -> new ArrayList<>()).add(id);
+        }
+
+        System.out.println("\n======= COMPONENTES CONEXAS =======");
+        System.out.printf("%-12s %-8s %-40s%n", "Componente", "Tamaño", "Municipios");
+        System.out.println("-".repeat(62));
+        for (Map.Entry<Integer, List<Long>> e : miembros.entrySet()) {
+            StringBuilder nombres = new StringBuilder();
+            for (long id : e.getValue()) {
+                if (nombres.length() > 0) nombres.append(", ");
+                nombres.append(grafo.getNombre(id));
+            }
+            System.out.printf("%-12d %-8d %-40s%n", e.getKey() + 1, e.getValue().size(), nombres);
+        }
+        System.out.println("-".repeat(62));
+        System.out.println("Total componentes: " + res.getNumComponentes());
+        System.out.println("=".repeat(62) + "\n");
+    }
+}
@@ -2,6 +2,9 @@ package co.edu.remington.grafos.algoritmos;
 
 import co.edu.remington.grafos.modelo.GrafoCasanare;
 import co.edu.remington.grafos.modelo.Via;
+import co.edu.remington.grafos.utilidades.EspacioBusqueda;
+import co.edu.remington.grafos.utilidades.MonticuloIndexado;
+import co.edu.remington.grafos.utilidades.PoolEspacios;
 
 import java.util.*;
 
@@ -16,6 +19,7 @@ import java.util.*;
 public class Dijkstra {
 
     private GrafoCasanare grafo;
+    private final PoolEspacios espacios = new PoolEspacios();
 
     public Dijkstra(GrafoCasanare grafo) {
         this.grafo = grafo;
@@ -25,6 +29,10 @@ public class Dijkstra {
     //  RESULTADO DE DIJKSTRA
     // =============================================
 
+    /**
+     * Arreglos indexados por índice compacto del grafo (ver GrafoCasanare.getIndice).
+     * anterior[] también guarda índices compactos (-1 = sin predecesor).
+     */
     public static class Resultado {
         public double[] dist;
         public int[] anterior;
@@ -46,17 +54,18 @@ public class Dijkstra {
      * @param penalizar   true = usar distancias penalizadas por estado de vía
      * @return Resultado con arreglos de distancias mínimas y nodos anteriores
      */
-    public Resultado calcular(int origen, boolean penalizar) {
+    public Resultado calcular(long origen, boolean penalizar) {
         int n = grafo.getNumNodos();
         double[] dist = new double[n];
         int[] anterior = new int[n];
         Arrays.fill(dist, Double.MAX_VALUE);
         Arrays.fill(anterior, -1);
-        dist[origen] = 0;
+        int s = grafo.getIndice(origen);
+        dist[s] = 0;
 
         // PriorityQueue: {nodo, distancia_acumulada}
         PriorityQueue<double[]> pq = new PriorityQueue<>(Comparator.comparingDouble(a -> a[1]));
-        pq.offer(new double[]{origen, 0});
+        pq.offer(new double[]{s, 0});
 
         while (!pq.isEmpty()) {
             double[] actual = pq.poll();
@@ -66,8 +75,9 @@ public class Dijkstra {
             // Si encontramos un camino ya procesado con mejor distancia, ignorar
             if (dU > dist[u]) continue;
 
-            for (Via v : grafo.getListaAdyacencia().get(u)) {
-                int w = v.getDestino();
+            for (Via v : grafo.getVecinos(u)) {
+                if (!v.estaActiva()) continue;
+                int w = v.getIndiceDestino();
                 double peso = penalizar ? v.getDistanciaPenalizada() : v.getDistancia();
                 double nuevaDist = dist[u] + peso;
 
@@ -81,22 +91,106 @@ public class Dijkstra {
         return new Resultado(dist, anterior);
     }
 
+    /**
+     * Igual que calcular(), pero entrega el árbol de caminos como objeto
+     * inmutable con extracción de caminos en tiempo lineal.
+     */
+    public ArbolCaminos calcularArbol(long origen, boolean penalizar) {
+        Resultado res = calcular(origen, penalizar);
+        return new ArbolCaminos(grafo, grafo.getIndice(origen), res.anterior, res.dist);
+    }
+
+    // =============================================
+    //  CONSULTA PUNTO A PUNTO
+    // =============================================
+
+    /**
+     * Distancia mínima entre dos municipios. Se detiene al fijar el destino y
+     * usa un espacio reutilizable del pool, así que una consulta corta cuesta
+     * en proporción a los nodos que visita y no al tamaño del grafo.
+     * Puede llamarse desde varios hilos a la vez.
+     *
+     * @return Double.MAX_VALUE si no hay ruta
+     */
+    public double distancia(long origen, long destino, boolean penalizar) {
+        int t = grafo.getIndice(destino);
+        try (EspacioBusqueda e = espacios.tomar(grafo.getNumNodos())) {
+            return buscarHasta(e, grafo.getIndice(origen), t, penalizar) ? e.getDist(t) : Double.MAX_VALUE;
+        }
+    }
+
+    /** Ruta punto a punto: distancia y camino (IDs externos; vacío si no hay ruta). */
+    public static class RutaOptima {
+        public final double distancia;
+        public final List<Long> camino;
+
+        RutaOptima(double distancia, List<Long> camino) {
+            this.distancia = distancia;
+            this.camino = camino;
+        }
+    }
+
+    /**
+     * Igual que distancia(), pero también reconstruye el camino desde el
+     * espacio de búsqueda antes de devolverlo al pool. Es lo que usa el menú
+     * para una ruta específica.
+     */
+    public RutaOptima ruta(long origen, long destino, boolean penalizar) {
+        int t = grafo.getIndice(destino);
+        try (EspacioBusqueda e = espacios.tomar(grafo.getNumNodos())) {
+            List<Long> camino = new ArrayList<>();
+            if (!buscarHasta(e, grafo.getIndice(origen), t, penalizar)) {
+                return new RutaOptima(Double.MAX_VALUE, camino);
+            }
+            for (int v = t; v != -1; v = e.getAnterior(v)) camino.add(grafo.getIdExterno(v));
+            Collections.reverse(camino);
+            return new RutaOptima(e.getDist(t), camino);
+        }
+    }
+
+    /**
+     * Dijkstra desde s que se detiene al extraer t.
+     * @return true si t es alcanzable
+     */
+    private boolean buscarHasta(EspacioBusqueda e, int s, int t, boolean penalizar) {
+        MonticuloIndexado pq = e.getMonticulo();
+        e.actualizar(s, 0, -1);
+        pq.insertarOReducir(s, 0);
+        while (!pq.estaVacio()) {
+            int u = pq.extraerMin();
+            if (u == t) return true;
+            double dU = e.getDist(u);
+            for (Via v : grafo.getVecinos(u)) {
+                if (!v.estaActiva()) continue;
+                int w = v.getIndiceDestino();
+                double nuevaDist = dU + (penalizar ? v.getDistanciaPenalizada() : v.getDistancia());
+                if (nuevaDist < e.getDist(w)) {
+                    e.actualizar(w, nuevaDist, u);
+                    pq.insertarOReducir(w, nuevaDist);
+                }
+            }
+        }
+        return false;
+    }
+
     // =============================================
     //  RECONSTRUCCIÓN DEL CAMINO
     // =============================================
 
     /**
      * Reconstruye el camino desde origen hasta destino usando el arreglo anterior.
+     * Recibe el ID externo del destino y retorna el camino como IDs externos.
      */
-    public List<Integer> reconstruirCamino(int[] anterior, int destino) {
-        List<Integer> camino = new ArrayList<>();
-        for (int v = destino; v != -1; v = anterior[v]) {
-            camino.add(0, v);
+    public List<Long> reconstruirCamino(int[] anterior, long destino) {
+        List<Long> camino = new ArrayList<>();
+        for (int v = grafo.getIndice(destino); v != -1; v = anterior[v]) {
+            camino.add(grafo.getIdExterno(v));
         }
+        Collections.reverse(camino);
         return camino;
     }
 
-    public String formatearCamino(List<Integer> camino) {
+    public String formatearCamino(List<Long> camino) {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < camino.size(); i++) {
             sb.append(grafo.getNombre(camino.get(i)));
@@ -112,8 +206,8 @@ public class Dijkstra {
     /**
      * Muestra la tabla completa de rutas mínimas desde el nodo origen.
      */
-    public void mostrarTodasLasRutas(int origen, boolean penalizar) {
-        Resultado res = calcular(origen, penalizar);
+    public void mostrarTodasLasRutas(long origen, boolean penalizar) {
+        ArbolCaminos arbol = calcularArbol(origen, penalizar);
         String modo = penalizar ? "PENALIZADA (estado vía)" : "REAL (km)";
 
         System.out.println("\n======= DIJKSTRA desde " + grafo.getNombre(origen) +
@@ -121,12 +215,12 @@ public class Dijkstra {
         System.out.printf("%-20s %-12s %-45s%n", "Destino", "Dist (km)", "Ruta óptima");
         System.out.println("-".repeat(80));
 
-        for (int i : grafo.getIds()) {
+        for (long i : grafo.getIds()) {
             if (i == origen) continue;
-            String distStr = res.dist[i] == Double.MAX_VALUE ? "Inalcanzable" :
-                    String.format("%.2f", res.dist[i]);
-            List<Integer> camino = reconstruirCamino(res.anterior, i);
-            String rutaStr = res.dist[i] == Double.MAX_VALUE ? "-" : formatearCamino(camino);
+            double d = arbol.getDistancia(i);
+            String distStr = d == Double.MAX_VALUE ? "Inalcanzable" :
+                    String.format("%.2f", d);
+            String rutaStr = d == Double.MAX_VALUE ? "-" : arbol.formatear(i);
             System.out.printf("%-20s %-12s %-45s%n",
                     grafo.getNombre(i), distStr, rutaStr);
         }
@@ -140,19 +234,18 @@ public class Dijkstra {
     /**
      * Muestra la ruta óptima entre dos municipios específicos.
      */
-    public void mostrarRutaEspecifica(int origen, int destino, boolean penalizar) {
-        Resultado res = calcular(origen, penalizar);
+    public void mostrarRutaEspecifica(long origen, long destino, boolean penalizar) {
+        RutaOptima ruta = ruta(origen, destino, penalizar);
         String modo = penalizar ? "penalizada" : "real";
 
         System.out.printf("\n--- Ruta %s -> %s [distancia %s] ---\n",
                 grafo.getNombre(origen), grafo.getNombre(destino), modo);
 
-        if (res.dist[destino] == Double.MAX_VALUE) {
+        if (ruta.distancia == Double.MAX_VALUE) {
             System.out.println("No existe ruta entre estos municipios.");
         } else {
-            List<Integer> camino = reconstruirCamino(res.anterior, destino);
-            System.out.println("  Camino: " + formatearCamino(camino));
-            System.out.printf("  Distancia: %.2f km%n", res.dist[destino]);
+            System.out.println("  Camino: " + formatearCamino(ruta.camino));
+            System.out.printf("  Distancia: %.2f km%n", ruta.distancia);
         }
     }
 
@@ -163,31 +256,29 @@ public class Dijkstra {
     /**
      * Compara la ruta óptima real vs penalizada entre dos municipios.
      */
-    public void compararRutas(int origen, int destino) {
-        Resultado sinPen = calcular(origen, false);
-        Resultado conPen  = calcular(origen, true);
+    public void compararRutas(long origen, long destino) {
+        RutaOptima sinPen = ruta(origen, destino, false);
+        RutaOptima conPen = ruta(origen, destino, true);
 
         System.out.println("\n======= COMPARACIÓN: " + grafo.getNombre(origen) +
                 " -> " + grafo.getNombre(destino) + " =======");
 
         // Sin penalización
         System.out.println("  [Sin penalización]");
-        if (sinPen.dist[destino] == Double.MAX_VALUE) {
+        if (sinPen.distancia == Double.MAX_VALUE) {
             System.out.println("    Sin ruta");
         } else {
-            List<Integer> c1 = reconstruirCamino(sinPen.anterior, destino);
-            System.out.printf("    Camino: %s%n", formatearCamino(c1));
-            System.out.printf("    Distancia real: %.2f km%n", sinPen.dist[destino]);
+            System.out.printf("    Camino: %s%n", formatearCamino(sinPen.camino));
+            System.out.printf("    Distancia real: %.2f km%n", sinPen.distancia);
         }
 
         // Con penalización
         System.out.println("  [Con penalización por estado de vía]");
-        if (conPen.dist[destino] == Double.MAX_VALUE) {
+        if (conPen.distancia == Double.MAX_VALUE) {
             System.out.println("    Sin ruta");
         } else {
-            List<Integer> c2 = reconstruirCamino(conPen.anterior, destino);
-            System.out.printf("    Camino: %s%n", formatearCamino(c2));
-            System.out.printf("    Distancia ajustada: %.2f km%n", conPen.dist[destino]);
+            System.out.printf("    Camino: %s%n", formatearCamino(conPen.camino));
+            System.out.printf("    Distancia ajustada: %.2f km%n", conPen.distancia);
         }
         System.out.println("=".repeat(50));
     }
@@ -0,0 +1,366 @@
+package co.edu.remington.grafos.algoritmos;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.OyenteGrafo;
+import co.edu.remington.grafos.modelo.Via;
+import co.edu.remington.grafos.utilidades.EspacioBusqueda;
+import co.edu.remington.grafos.utilidades.MonticuloIndexado;
+import co.edu.remington.grafos.utilidades.PoolEspacios;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Búsqueda ALT (A*, Landmarks, desigualdad Triangular) para rutas entre dos
+ * municipios sin necesidad de coordenadas.
+ *
+ * En el preprocesamiento se eligen k municipios "landmark" y se guarda la
+ * distancia de cada landmark a todos los nodos, en ambos modos de peso. En la
+ * consulta, |d(L, t) - d(L, v)| es una cota inferior de d(v, t) que orienta la
+ * búsqueda hacia el destino y reduce los nodos explorados.
+ *
+ * Cerrar o eliminar vías solo alarga distancias, así que las cotas siguen
+ * siendo válidas. Agregar municipios o vías (o reordenar índices) invalida
+ * las tablas y hay que volver a preprocesar.
+ */
+public class DijkstraALT implements OyenteGrafo {
+
+    private static final int MAGIA = 0x414C5454; // "ALTT"
+    private static final int VERSION = 1;
+
+    /** Estrategia de selección de landmarks. */
+    public enum Seleccion {
+        /** Cada landmark maximiza la distancia mínima a los ya elegidos. */
+        LEJANOS,
+        /** Heurística "avoid" de Goldberg y Werneck: cubre las zonas peor acotadas. */
+        EVITAR
+    }
+
+    private final GrafoCasanare grafo;
+    private int[] landmarks;          // índices compactos
+    private double[][][] tablas;      // [modo][landmark][nodo]; modo 0 = real, 1 = penalizada
+    private volatile boolean vigente;
+    private final PoolEspacios espacios = new PoolEspacios();
+
+    public DijkstraALT(GrafoCasanare grafo) {
+        this.grafo = grafo;
+        grafo.agregarOyente(this);
+    }
+
+    // =============================================
+    //  RESULTADO DE UNA CONSULTA
+    // =============================================
+
+    public static class Ruta {
+        public final double distancia;           // Double.MAX_VALUE = sin ruta
+        public final List<Long> camino;          // IDs externos
+        public final int nodosExplorados;
+
+        public Ruta(double distancia, List<Long> camino, int nodosExplorados) {
+            this.distancia = distancia;
+            this.camino = camino;
+            this.nodosExplorados = nodosExplorados;
+        }
+    }
+
+    // =============================================
+    //  PREPROCESAMIENTO
+    // =============================================
+
+    /**
+     * Elige k landmarks y calcula sus tablas de distancia en ambos modos.
+     * Las 2k búsquedas de Dijkstra finales se ejecutan en paralelo. Con el
+     * grafo vacío (o k <= 0) no hay landmarks y la cota queda en 0.
+     */
+    public void preprocesar(int k, Seleccion seleccion) {
+        int n = grafo.getNumNodos();
+        k = Math.max(0, Math.min(k, n));
+        landmarks = seleccion == Seleccion.LEJANOS ? elegirLejanos(k) : elegirEvitando(k);
+
+        double[][][] nuevas = new double[2][landmarks.length][];
+        int total = landmarks.length;
+        IntStream.range(0, 2 * total).parallel().forEach(tarea -> {
+            int modo = tarea / total, l = tarea % total;
+            nuevas[modo][l] = dijkstra(landmarks[l], modo == 1, null);
+        });
+        tablas = nuevas;
+        vigente = true;
+    }
+
+    private int[] elegirLejanos(int k) {
+        int n = grafo.getNumNodos();
+        int[] elegidos = new int[k];
+        if (k == 0) return elegidos;
+        double[] minDist = new double[n];
+        Arrays.fill(minDist, Double.POSITIVE_INFINITY);
+
+        // El primero es el nodo más lejano al índice 0
+        int actual = masLejano(dijkstra(0, false, null));
+        for (int l = 0; l < k; l++) {
+            elegidos[l] = actual;
+            double[] d = dijkstra(actual, false, null);
+            for (int v = 0; v < n; v++) minDist[v] = Math.min(minDist[v], d[v]);
+            minDist[actual] = -1;
+            // Siguiente: el que maximiza la distancia mínima (infinito = otra componente sin landmark)
+            actual = masLejano(minDist);
+        }
+        return elegidos;
+    }
+
+    private static int masLejano(double[] d) {
+        int mejor = 0;
+        for (int v = 1; v < d.length; v++) {
+            if (d[v] > d[mejor]) mejor = v;
+        }
+        return mejor;
+    }
+
+    private int[] elegirEvitando(int k) {
+        int n = grafo.getNumNodos();
+        List<Integer> elegidos = new ArrayList<>();
+        List<double[]> tablasReales = new ArrayList<>();
+        Random rnd = new Random(n);
+        int[] padre = new int[n];
+
+        while (elegidos.size() < k) {
+            int r = rnd.nextInt(n);
+            double[] dist = dijkstra(r, false, padre);
+
+            // peso(v) = d(r, v) - cota inferior actual: cuánto "se escapa" v de las cotas
+            double[] tamanio = new double[n];
+            boolean[] conLandmark = new boolean[n];
+            for (int l : elegidos) conLandmark[l] = true;
+            Integer[] porDist = new Integer[n];
+            for (int v = 0; v < n; v++) porDist[v] = v;
+            Arrays.sort(porDist, (a, b) -> Double.compare(dist[b], dist[a]));
+
+            for (int v : porDist) {
+                if (dist[v] == Double.POSITIVE_INFINITY) continue;
+                double cota = 0;
+                for (double[] t : tablasReales) cota = Math.max(cota, Math.abs(t[r] - t[v]));
+                tamanio[v] += dist[v] - cota;
+                if (conLandmark[v]) tamanio[v] = 0;
+                if (padre[v] >= 0) {
+                    if (conLandmark[v]) conLandmark[padre[v]] = true;
+                    else tamanio[padre[v]] += tamanio[v];
+                }
+            }
+
+            // Descender por el hijo de mayor tamaño hasta una hoja
+            List<List<Integer>> hijos = new ArrayList<>();
+            for (int v = 0; v < n; v++) hijos.add(new ArrayList<>());
+            for (int v = 0; v < n; v++) if (padre[v] >= 0) hijos.get(padre[v]).add(v);
+            int v = r;
+            while (true) {
+                int siguiente = -1;
+                for (int h : hijos.get(v)) {
+                    if (tamanio[h] > 0 && (siguiente == -1 || tamanio[h] > tamanio[siguiente])) siguiente = h;
+                }
+                if (siguiente == -1) break;
+                v = siguiente;
+            }
+            if (elegidos.contains(v)) {
+                // Región ya cubierta: se toma cualquier nodo aún no elegido
+                v = 0;
+                while (elegidos.contains(v)) {
+                    v++;
+                }
+            }
+            elegidos.add(v);
+            tablasReales.add(dijkstra(v, false, null));
+        }
+        return elegidos.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Dijkstra completo desde un índice compacto; infinito = no alcanzable.
+     * Si padre no es null, se llena con el árbol de caminos mínimos.
+     */
+    private double[] dijkstra(int s, boolean penalizar, int[] padre) {
+        int n = grafo.getNumNodos();
+        double[] dist = new double[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        if (padre != null) Arrays.fill(padre, -1);
+        MonticuloIndexado pq = new MonticuloIndexado(n);
+        dist[s] = 0;
+        pq.insertarOReducir(s, 0);
+        while (!pq.estaVacio()) {
+            int u = pq.extraerMin();
+            for (Via v : grafo.getVecinos(u)) {
+                if (!v.estaActiva()) continue;
+                int w = v.getIndiceDestino();
+                double nuevaDist = dist[u] + (penalizar ? v.getDistanciaPenalizada() : v.getDistancia());
+                if (nuevaDist < dist[w]) {
+                    dist[w] = nuevaDist;
+                    if (padre != null) padre[w] = u;
+                    pq.insertarOReducir(w, nuevaDist);
+                }
+            }
+        }
+        return dist;
+    }
+
+    // =============================================
+    //  CONSULTA A*
+    // =============================================
+
+    /**
+     * Ruta mínima entre dos municipios (IDs externos) usando las cotas de los landmarks.
+     */
+    public Ruta calcular(long origen, long destino, boolean penalizar) {
+        if (!vigente) {
+            throw new IllegalStateException("Tablas ALT desactualizadas: ejecute preprocesar o cargar.");
+        }
+        double[][] tabla = tablas[penalizar ? 1 : 0];
+        int s = grafo.getIndice(origen), t = grafo.getIndice(destino);
+
+        try (EspacioBusqueda e = espacios.tomar(grafo.getNumNodos())) {
+            MonticuloIndexado pq = e.getMonticulo();   // clave = distancia + cota hasta t
+            e.actualizar(s, 0, -1);
+            pq.insertarOReducir(s, cotaInferior(tabla, s, t));
+            int explorados = 0;
+
+            while (!pq.estaVacio()) {
+                int u = pq.extraerMin();
+                e.cerrar(u);
+                explorados++;
+                if (u == t) break;
+                double dU = e.getDist(u);
+                for (Via v : grafo.getVecinos(u)) {
+                    if (!v.estaActiva()) continue;
+                    int w = v.getIndiceDestino();
+                    double nuevaDist = dU + (penalizar ? v.getDistanciaPenalizada() : v.getDistancia());
+                    if (e.estaCerrado(w) || nuevaDist >= e.getDist(w)) continue;
+                    double h = cotaInferior(tabla, w, t);
+                    if (h == Double.POSITIVE_INFINITY) continue; // w y t en componentes distintas
+                    e.actualizar(w, nuevaDist, u);
+                    pq.insertarOReducir(w, nuevaDist + h);
+                }
+            }
+
+            if (!e.estaCerrado(t)) return new Ruta(Double.MAX_VALUE, new ArrayList<>(), explorados);
+            List<Long> camino = new ArrayList<>();
+            for (int v = t; v != -1; v = e.getAnterior(v)) camino.add(grafo.getIdExterno(v));
+            Collections.reverse(camino);
+            return new Ruta(e.getDist(t), camino, explorados);
+        }
+    }
+
+    // max_L |d(L, t) - d(L, v)|, válido porque el grafo es no dirigido
+    private static double cotaInferior(double[][] tabla, int v, int t) {
+        double cota = 0;
+        for (double[] d : tabla) {
+            double dv = d[v], dt = d[t];
+            if (dv == Double.POSITIVE_INFINITY && dt == Double.POSITIVE_INFINITY) continue;
+            if (dv == Double.POSITIVE_INFINITY || dt == Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+            cota = Math.max(cota, Math.abs(dt - dv));
+        }
+        return cota;
+    }
+
+    public long[] getLandmarks() {
+        long[] ids = new long[landmarks.length];
+        for (int l = 0; l < ids.length; l++) ids[l] = grafo.getIdExterno(landmarks[l]);
+        return ids;
+    }
+
+    // =============================================
+    //  PERSISTENCIA
+    // =============================================
+
+    /**
+     * Ruta del archivo de tablas ALT que acompaña a un archivo de grafo.
+     */
+    public static Path rutaJunto(Path archivoGrafo) {
+        return archivoGrafo.resolveSibling(archivoGrafo.getFileName() + ".alt");
+    }
+
+    public void guardar(Path archivo) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(archivo)))) {
+            int n = grafo.getNumNodos();
+            out.writeInt(MAGIA);
+            out.writeInt(VERSION);
+            out.writeLong(grafo.calcularFirma());
+            out.writeInt(n);
+            out.writeInt(landmarks.length);
+            for (int l : landmarks) out.writeInt(l);
+            for (double[][] modo : tablas) {
+                for (double[] d : modo) {
+                    for (int v = 0; v < n; v++) out.writeDouble(d[v]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Carga tablas guardadas. Retorna false (sin modificar el estado) si el
+     * archivo no existe o fue generado para un grafo distinto.
+     */
+    public boolean cargar(Path archivo) throws IOException {
+        if (!Files.exists(archivo)) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(archivo)))) {
+            if (in.readInt() != MAGIA || in.readInt() != VERSION) return false;
+            if (in.readLong() != grafo.calcularFirma()) return false;
+            int n = in.readInt();
+            if (n != grafo.getNumNodos()) return false;
+            int[] nuevos = new int[in.readInt()];
+            for (int l = 0; l < nuevos.length; l++) nuevos[l] = in.readInt();
+            double[][][] nuevas = new double[2][nuevos.length][n];
+            for (double[][] modo : nuevas) {
+                for (double[] d : modo) {
+                    for (int v = 0; v < n; v++) d[v] = in.readDouble();
+                }
+            }
+            landmarks = nuevos;
+            tablas = nuevas;
+            vigente = true;
+            return true;
+        }
+    }
+
+    /**
+     * Carga las tablas que acompañan al archivo del grafo o, si faltan o no
+     * corresponden, las recalcula y las guarda para el siguiente arranque.
+     */
+    public void cargarOPreprocesar(Path archivoGrafo, int k, Seleccion seleccion) throws IOException {
+        Path archivo = rutaJunto(archivoGrafo);
+        if (cargar(archivo)) return;
+        preprocesar(k, seleccion);
+        guardar(archivo);
+    }
+
+    // =============================================
+    //  INVALIDACIÓN
+    // =============================================
+
+    @Override
+    public void municipioAgregado(long id, String nombre) {
+        vigente = false;
+    }
+
+    @Override
+    public void viaAgregada(int idVia, long origen, long destino, double distancia, String estado) {
+        vigente = false;
+    }
+
+    @Override
+    public void viaCerrada(int idVia, boolean cerrada) {
+        // Reabrir una vía acorta distancias: las cotas dejan de ser válidas
+        if (!cerrada) vigente = false;
+    }
+
+    @Override
+    public void indicesReordenados() {
+        vigente = false;
+    }
+
+    /**
+     * Deja de escuchar las mutaciones del grafo.
+     */
+    public void liberar() {
+        grafo.quitarOyente(this);
+    }
+}
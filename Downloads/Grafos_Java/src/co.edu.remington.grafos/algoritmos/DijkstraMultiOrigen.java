@@ -0,0 +1,245 @@
+package co.edu.remington.grafos.algoritmos;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.Via;
+import co.edu.remington.grafos.utilidades.MonticuloIndexado;
+
+import java.util.*;
+
+/**
+ * Dijkstra multi-origen: asigna cada municipio a la instalación (hospital,
+ * depósito...) más cercana en un solo recorrido, sembrando todas las
+ * instalaciones en la cola con distancia 0.
+ *
+ * Con capacidades, cada instalación propaga su propia onda y un municipio se
+ * asigna a la primera instalación con cupo que lo alcanza (asignación voraz
+ * por distancia). Las ondas atraviesan municipios ya asignados a otras
+ * instalaciones y una instalación deja de propagarse al agotar su cupo.
+ */
+public class DijkstraMultiOrigen {
+
+    private GrafoCasanare grafo;
+
+    public DijkstraMultiOrigen(GrafoCasanare grafo) {
+        this.grafo = grafo;
+    }
+
+    // =============================================
+    //  RESULTADO DE LA ASIGNACIÓN
+    // =============================================
+
+    /**
+     * Arreglos indexados por índice compacto del grafo.
+     * instalacion[i] = ID externo de la instalación asignada (-1 = sin asignar).
+     */
+    public class Resultado {
+        public final long[] instalacion;
+        public final double[] dist;
+        private final int[] anterior;                // sin capacidades
+        private final int[] anteriores;              // con capacidades: etiqueta -> etiqueta previa
+        private final Map<Long, Integer> posicion;   // ID instalación -> posición en la lista
+
+        Resultado(long[] instalacion, double[] dist, int[] anterior,
+                  int[] anteriores, Map<Long, Integer> posicion) {
+            this.instalacion = instalacion;
+            this.dist = dist;
+            this.anterior = anterior;
+            this.anteriores = anteriores;
+            this.posicion = posicion;
+        }
+
+        public long getInstalacion(long id) {
+            return instalacion[grafo.getIndice(id)];
+        }
+
+        public double getDistancia(long id) {
+            return dist[grafo.getIndice(id)];
+        }
+
+        /**
+         * Camino (IDs externos) desde la instalación asignada hasta el municipio.
+         * Lista vacía si el municipio quedó sin asignar.
+         */
+        public List<Long> getCamino(long id) {
+            List<Long> camino = new ArrayList<>();
+            int v = grafo.getIndice(id);
+            if (instalacion[v] == -1) return camino;
+
+            if (anteriores == null) {
+                for (; v != -1; v = anterior[v]) camino.add(grafo.getIdExterno(v));
+            } else {
+                int k = posicion.size();
+                int f = posicion.get(instalacion[v]);
+                for (int e = etiqueta(v, f, k); e != -1; e = anteriores[e]) {
+                    camino.add(grafo.getIdExterno(e / k));
+                }
+            }
+            Collections.reverse(camino);
+            return camino;
+        }
+    }
+
+    // =============================================
+    //  ASIGNACIÓN SIN CAPACIDADES
+    // =============================================
+
+    /**
+     * Asigna cada municipio a su instalación más cercana.
+     *
+     * @param instalaciones IDs de las instalaciones
+     * @param penalizar     true = usar distancias penalizadas por estado de vía
+     */
+    public Resultado asignar(List<Long> instalaciones, boolean penalizar) {
+        int n = grafo.getNumNodos();
+        double[] dist = new double[n];
+        int[] anterior = new int[n];
+        long[] instalacion = new long[n];
+        Arrays.fill(dist, Double.MAX_VALUE);
+        Arrays.fill(anterior, -1);
+        Arrays.fill(instalacion, -1);
+
+        MonticuloIndexado pq = new MonticuloIndexado(n);
+        for (long id : instalaciones) {
+            int s = grafo.getIndice(id);
+            if (s < 0 || dist[s] == 0) continue;
+            dist[s] = 0;
+            instalacion[s] = id;
+            pq.insertarOReducir(s, 0);
+        }
+
+        while (!pq.estaVacio()) {
+            int u = pq.extraerMin();
+            for (Via v : grafo.getVecinos(u)) {
+                if (!v.estaActiva()) continue;
+                int w = v.getIndiceDestino();
+                double nuevaDist = dist[u] + (penalizar ? v.getDistanciaPenalizada() : v.getDistancia());
+                if (nuevaDist < dist[w]) {
+                    dist[w] = nuevaDist;
+                    anterior[w] = u;
+                    instalacion[w] = instalacion[u];
+                    pq.insertarOReducir(w, nuevaDist);
+                }
+            }
+        }
+        return new Resultado(instalacion, dist, anterior, null, null);
+    }
+
+    // =============================================
+    //  ASIGNACIÓN CON CAPACIDADES
+    // =============================================
+
+    /**
+     * Asigna municipios respetando un cupo por instalación.
+     * La instalación siempre se atiende a sí misma y no consume cupo.
+     *
+     * Las etiquetas (nodo, instalación) se numeran nodo * k + f y viven en
+     * arreglos planos de tamaño n * k, con un MonticuloIndexado sobre ese
+     * mismo rango.
+     *
+     * @param capacidades ID instalación -> número máximo de municipios adicionales
+     *                    que puede atender (sin entrada = ilimitado)
+     * @throws IllegalArgumentException si una instalación se repite o n * k
+     *                                  no cabe en un arreglo
+     */
+    public Resultado asignar(List<Long> instalaciones, Map<Long, Integer> capacidades,
+                             boolean penalizar) {
+        int n = grafo.getNumNodos();
+        int k = instalaciones.size();
+        if ((long) n * k > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Demasiadas etiquetas: " + n + " municipios x " + k + " instalaciones");
+        }
+        double[] dist = new double[n];
+        long[] instalacion = new long[n];
+        Arrays.fill(dist, Double.MAX_VALUE);
+        Arrays.fill(instalacion, -1);
+
+        Map<Long, Integer> posicion = new HashMap<>();
+        int[] cupo = new int[k];
+        int[] sede = new int[k];
+        for (int f = 0; f < k; f++) {
+            long id = instalaciones.get(f);
+            if (posicion.putIfAbsent(id, f) != null) {
+                throw new IllegalArgumentException("Instalación repetida: " + id);
+            }
+            sede[f] = grafo.getIndice(id);
+            cupo[f] = capacidades.getOrDefault(id, Integer.MAX_VALUE);
+        }
+
+        // Etiquetas (nodo, instalación): distancia tentativa y etiqueta previa
+        double[] distEtiqueta = new double[n * k];
+        int[] anteriores = new int[n * k];
+        Arrays.fill(distEtiqueta, Double.MAX_VALUE);
+        Arrays.fill(anteriores, -1);
+
+        MonticuloIndexado pq = new MonticuloIndexado(n * k);
+        for (int f = 0; f < k; f++) {
+            if (sede[f] < 0) continue;
+            int e = etiqueta(sede[f], f, k);
+            distEtiqueta[e] = 0;
+            pq.insertarOReducir(e, 0);
+        }
+
+        while (!pq.estaVacio()) {
+            int eU = pq.extraerMin();
+            int u = eU / k, f = eU % k;
+            double dU = distEtiqueta[eU];
+
+            if (instalacion[u] == -1 && (u == sede[f] || cupo[f] > 0)) {
+                if (u != sede[f]) cupo[f]--;
+                instalacion[u] = instalaciones.get(f);
+                dist[u] = dU;
+            }
+            if (cupo[f] == 0) continue;
+
+            for (Via v : grafo.getVecinos(u)) {
+                if (!v.estaActiva()) continue;
+                int w = v.getIndiceDestino();
+                double nuevaDist = dU + (penalizar ? v.getDistanciaPenalizada() : v.getDistancia());
+                int eW = etiqueta(w, f, k);
+                if (nuevaDist < distEtiqueta[eW]) {
+                    distEtiqueta[eW] = nuevaDist;
+                    anteriores[eW] = eU;
+                    pq.insertarOReducir(eW, nuevaDist);
+                }
+            }
+        }
+        return new Resultado(instalacion, dist, null, anteriores, posicion);
+    }
+
+    private static int etiqueta(int nodo, int instalacion, int numInstalaciones) {
+        return nodo * numInstalaciones + instalacion;
+    }
+
+    // =============================================
+    //  MOSTRAR ASIGNACIÓN
+    // =============================================
+
+    /**
+     * Muestra la instalación más cercana de cada municipio con su ruta.
+     */
+    public void mostrarAsignacion(List<Long> instalaciones, boolean penalizar) {
+        Resultado res = asignar(instalaciones, penalizar);
+        String modo = penalizar ? "PENALIZADA (estado vía)" : "REAL (km)";
+
+        System.out.println("\n======= INSTALACIÓN MÁS CERCANA [Distancia " + modo + "] =======");
+        System.out.printf("%-20s %-20s %-12s %-45s%n", "Municipio", "Instalación", "Dist (km)", "Ruta");
+        System.out.println("-".repeat(100));
+
+        for (long id : grafo.getIds()) {
+            long inst = res.getInstalacion(id);
+            if (inst == -1) {
+                System.out.printf("%-20s %-20s %-12s %-45s%n", grafo.getNombre(id), "-", "Inalcanzable", "-");
+                continue;
+            }
+            List<Long> camino = res.getCamino(id);
+            StringBuilder ruta = new StringBuilder();
+            for (int i = 0; i < camino.size(); i++) {
+                ruta.append(grafo.getNombre(camino.get(i)));
+                if (i < camino.size() - 1) ruta.append(" -> ");
+            }
+            System.out.printf("%-20s %-20s %-12.2f %-45s%n",
+                    grafo.getNombre(id), grafo.getNombre(inst), res.getDistancia(id), ruta);
+        }
+        System.out.println("=".repeat(100) + "\n");
+    }
+}
@@ -0,0 +1,213 @@
+package co.edu.remington.grafos.algoritmos;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.utilidades.MatrizAdyacencia;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Distancias entre todos los pares de municipios con Floyd–Warshall por
+ * bloques, sobre la matriz densa de MatrizAdyacencia (km reales, vías activas).
+ * Pensado para redes regionales pequeñas que se recalculan a menudo cuando
+ * cambia el estado de las vías.
+ *
+ * La matriz se recorre en bloques de LADO x LADO para que los tres bloques de
+ * cada actualización quepan en caché. En cada fase k se resuelve primero el
+ * bloque diagonal, luego en paralelo los bloques de su fila y su columna, y
+ * por último en paralelo todos los demás, que son independientes entre sí.
+ *
+ * El ciclo interno min-plus es escalar: un Math.min sin saltos sobre filas
+ * contiguas. No se registran sucesores dentro del ciclo para mantenerlo así
+ * de simple; la matriz de sucesores se deduce al final, eligiendo para cada
+ * par (i, j) el vecino w de i que minimiza d(i, w) + D[w][j].
+ *
+ * Si hay vías paralelas entre dos municipios, la matriz de adyacencia guarda
+ * la más corta (ver GrafoCasanare.obtenerMatrizAdyacencia), y tanto la
+ * semilla como la deducción de sucesores parten de ese mínimo.
+ */
+public class FloydWarshall {
+
+    private static final int LADO = 64;
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    private GrafoCasanare grafo;
+    private MatrizAdyacencia matriz;
+
+    public FloydWarshall(GrafoCasanare grafo, MatrizAdyacencia matriz) {
+        this.grafo = grafo;
+        this.matriz = matriz;
+    }
+
+    // =============================================
+    //  RESULTADO
+    // =============================================
+
+    /**
+     * Matrices n x n aplanadas por filas e indexadas por índice compacto.
+     */
+    public class Resultado {
+        public final int n;
+        public final double[] dist;       // Double.MAX_VALUE = sin ruta
+        public final int[] siguiente;     // primer salto de i hacia j; -1 = sin ruta
+
+        private Resultado(int n, double[] dist, int[] siguiente) {
+            this.n = n;
+            this.dist = dist;
+            this.siguiente = siguiente;
+        }
+
+        /**
+         * Distancia mínima entre dos municipios (IDs externos). Double.MAX_VALUE
+         * si no hay ruta o si alguno no existía cuando se tomó la matriz.
+         */
+        public double getDistancia(long origen, long destino) {
+            int s = grafo.getIndice(origen), t = grafo.getIndice(destino);
+            if (!enRango(s) || !enRango(t)) return Double.MAX_VALUE;
+            return dist[s * n + t];
+        }
+
+        /** Camino como IDs externos; vacío si no hay ruta o algún municipio es desconocido. */
+        public long[] camino(long origen, long destino) {
+            int s = grafo.getIndice(origen), t = grafo.getIndice(destino);
+            if (!enRango(s) || !enRango(t) || siguiente[s * n + t] == -1) return new long[0];
+            int longitud = 1;
+            for (int v = s; v != t; v = siguiente[v * n + t]) longitud++;
+            long[] camino = new long[longitud];
+            int i = 0;
+            for (int v = s; ; v = siguiente[v * n + t]) {
+                camino[i++] = grafo.getIdExterno(v);
+                if (v == t) break;
+            }
+            return camino;
+        }
+
+        private boolean enRango(int i) {
+            return i >= 0 && i < n;
+        }
+    }
+
+    // =============================================
+    //  ALGORITMO
+    // =============================================
+
+    public Resultado calcular() {
+        double[][] ady = matriz.getMatriz();
+        int n = ady.length;
+        double[] d = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                d[i * n + j] = i == j ? 0 : ady[i][j] > 0 ? ady[i][j] : INF;
+            }
+        }
+
+        int bloques = (n + LADO - 1) / LADO;
+        for (int kb = 0; kb < bloques; kb++) {
+            final int k = kb;
+            // Fase 1: bloque diagonal
+            relajar(d, n, k, k, k);
+            // Fase 2: fila y columna del bloque diagonal (dependen solo de él)
+            IntStream.range(0, 2 * bloques).parallel().forEach(t -> {
+                int b = t >> 1;
+                if (b == k) return;
+                if ((t & 1) == 0) relajar(d, n, k, k, b);
+                else relajar(d, n, k, b, k);
+            });
+            // Fase 3: el resto (dependen de la fila y la columna ya resueltas)
+            IntStream.range(0, bloques * bloques).parallel().forEach(t -> {
+                int bi = t / bloques, bj = t % bloques;
+                if (bi == k || bj == k) return;
+                relajar(d, n, k, bi, bj);
+            });
+        }
+
+        int[] siguiente = deducirSucesores(ady, d, n);
+        for (int i = 0; i < d.length; i++) {
+            if (d[i] == INF) d[i] = Double.MAX_VALUE;
+        }
+        return new Resultado(n, d, siguiente);
+    }
+
+    /**
+     * D[i][j] = min(D[i][j], D[i][k] + D[k][j]) para k en el bloque kb,
+     * i en el bloque bi y j en el bloque bj.
+     */
+    private static void relajar(double[] d, int n, int kb, int bi, int bj) {
+        int k0 = kb * LADO, k1 = Math.min(n, k0 + LADO);
+        int i0 = bi * LADO, i1 = Math.min(n, i0 + LADO);
+        int j0 = bj * LADO, j1 = Math.min(n, j0 + LADO);
+        for (int k = k0; k < k1; k++) {
+            int filaK = k * n;
+            for (int i = i0; i < i1; i++) {
+                int filaI = i * n;
+                double dik = d[filaI + k];
+                if (dik == INF) continue;
+                for (int j = j0; j < j1; j++) {
+                    d[filaI + j] = Math.min(d[filaI + j], dik + d[filaK + j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Primer salto de cada par: el vecino w de i con menor d(i, w) + D[w][j].
+     * Cuesta O(n^2 · grado) y se reparte por filas entre los núcleos.
+     */
+    private static int[] deducirSucesores(double[][] ady, double[] d, int n) {
+        int[] siguiente = new int[n * n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            int[] vecinos = new int[n];
+            int grado = 0;
+            for (int w = 0; w < n; w++) {
+                if (w != i && ady[i][w] > 0) vecinos[grado++] = w;
+            }
+            int filaI = i * n;
+            for (int j = 0; j < n; j++) {
+                if (j == i) {
+                    siguiente[filaI + j] = i;
+                    continue;
+                }
+                int mejor = -1;
+                double mejorDist = INF;
+                if (d[filaI + j] != INF) {
+                    for (int g = 0; g < grado; g++) {
+                        int w = vecinos[g];
+                        double cand = ady[i][w] + d[w * n + j];
+                        if (cand < mejorDist) {
+                            mejorDist = cand;
+                            mejor = w;
+                        }
+                    }
+                }
+                siguiente[filaI + j] = mejor;
+            }
+        });
+        return siguiente;
+    }
+
+    // =============================================
+    //  MOSTRAR RESULTADO
+    // =============================================
+
+    public void mostrar() {
+        Resultado res = calcular();
+        List<Long> ids = grafo.getIds();
+
+        System.out.println("\n======= DISTANCIAS ENTRE TODOS LOS MUNICIPIOS (km) =======");
+        System.out.printf("%18s", "");
+        for (long id : ids) {
+            String nombre = grafo.getNombre(id);
+            System.out.printf("%8s", nombre.substring(0, Math.min(7, nombre.length())));
+        }
+        System.out.println();
+        for (long a : ids) {
+            System.out.printf("%18s", grafo.getNombre(a));
+            for (long b : ids) {
+                double d = res.getDistancia(a, b);
+                System.out.printf("%8s", d == Double.MAX_VALUE ? "-" : String.format("%.1f", d));
+            }
+            System.out.println();
+        }
+        System.out.println();
+    }
+}
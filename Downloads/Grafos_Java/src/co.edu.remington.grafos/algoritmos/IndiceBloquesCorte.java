@@ -0,0 +1,698 @@
+package co.edu.remington.grafos.algoritmos;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.OyenteGrafo;
+import co.edu.remington.grafos.modelo.Via;
+
+import java.util.*;
+
+/**
+ * Índice de componentes biconexas (árbol de bloques y cortes) para responder
+ * "¿qué pasa si falla este municipio o esta vía?" sin recorrer el grafo.
+ *
+ * El árbol tiene un nodo por municipio (0..n-1) y uno por bloque (n..n+B-1);
+ * cada municipio se une a los bloques que lo contienen. Quitar X separa A de B
+ * si y solo si X está en el camino del árbol entre A y B, lo que se comprueba
+ * en O(1) con tiempos de entrada/salida y LCA por tabla dispersa.
+ *
+ * El índice escucha al grafo y absorbe las vías nuevas sin reconstruirse:
+ *  - entre dos municipios del mismo árbol, todos los bloques del camino que
+ *    los une se fusionan en uno (unión-búsqueda sobre bloques) y los puntos
+ *    de corte estrictamente interiores a ese camino dejan de serlo;
+ *  - entre dos árboles distintos, se crea un bloque puente que los enlaza.
+ * Los enlaces forman un bosque de árboles encima del árbol base, de modo que
+ * un camino puede cruzar varios árboles base. Solo un municipio nuevo, una
+ * vía eliminada o cerrada, o un reordenamiento obligan a reconstruir.
+ */
+public class IndiceBloquesCorte implements OyenteGrafo {
+
+    private final GrafoCasanare grafo;
+    private boolean desactualizado;
+
+    // Bloques (los primeros bloquesBase son del árbol base; el resto, enlaces)
+    private int n;
+    private int numBloques;
+    private int bloquesBase;
+    private int numClases;           // bloques distintos tras las fusiones
+    private int[] bloqueDeVia;       // idVia -> bloque (-1 = inactiva o lazo)
+    private int[] aristasPorBloque;  // por representante; 1 arista = la vía es puente
+    private int[] claseBloque;       // unión-búsqueda: bloque -> bloque padre
+    private int[] bloquesPorNodo;    // bloques distintos que contienen al municipio; >= 2 = corte
+
+    // Árbol base de bloques y cortes (raíces en nodos bloque o municipios aislados)
+    private int[] inicioHijos, hijos;
+    private int[] padre;
+    private int[] profundidad;
+    private int[] entrada, salida;   // tiempos DFS para pruebas de ancestro
+    private int[] vIni, vFin;        // rango del subárbol dentro de ordenVertices
+    private int[] ordenVertices;     // municipios (índice compacto) en preorden
+    private int[] raiz;              // raíz del árbol base que contiene a cada nodo
+
+    // Enlaces entre árboles base: el enlace e es el bloque bloquesBase + e
+    private int[] enlaceU, enlaceW;  // municipios que une (en árboles base distintos)
+    private int numEnlaces;
+    private final Map<Integer, List<Integer>> enlacesPorArbol = new HashMap<>();
+    private int[] grupo;             // unión-búsqueda de árboles base enlazados
+
+    // LCA: recorrido de Euler + tabla dispersa de mínimos por profundidad
+    private int[] euler;
+    private int[] primeraVisita;
+    private int[][] tabla;
+
+    public IndiceBloquesCorte(GrafoCasanare grafo) {
+        this.grafo = grafo;
+        construir();
+        grafo.agregarOyente(this);
+    }
+
+    /**
+     * Deja de escuchar las mutaciones del grafo.
+     */
+    public void liberar() {
+        grafo.quitarOyente(this);
+    }
+
+    // =============================================
+    //  CONSULTAS (reciben IDs externos)
+    // =============================================
+
+    public synchronized boolean estanConectados(long a, long b) {
+        asegurarActualizado();
+        return raizGrupo(raiz[grafo.getIndice(a)]) == raizGrupo(raiz[grafo.getIndice(b)]);
+    }
+
+    public synchronized boolean esPuntoArticulacion(long id) {
+        asegurarActualizado();
+        return bloquesPorNodo[grafo.getIndice(id)] >= 2;
+    }
+
+    public synchronized boolean esPuente(int idVia) {
+        asegurarActualizado();
+        int b = idVia < bloqueDeVia.length ? bloqueDeVia[idVia] : -1;
+        return b >= 0 && aristasPorBloque[clase(b)] == 1;
+    }
+
+    /**
+     * ¿Eliminar el municipio x desconecta a de b? (true si a o b es x).
+     * Si a y b ya estaban desconectados retorna false.
+     */
+    public synchronized boolean desconectaMunicipio(long x, long a, long b) {
+        asegurarActualizado();
+        if (x == a || x == b) return true;
+        int ix = grafo.getIndice(x), ia = grafo.getIndice(a), ib = grafo.getIndice(b);
+        if (bloquesPorNodo[ix] < 2) return false;
+        List<int[]> tramos = tramos(ia, ib);
+        if (tramos == null) return false;
+        for (int[] t : tramos) {
+            int s = t[0], u = t[1];
+            if (raiz[s] != raiz[ix] || !enCamino(ix, s, u)) continue;
+            // x separa a de b si sus dos vecinos en el camino son bloques distintos
+            int antes = ix == s ? nodoEnlace(t[2]) : vecinoHacia(ix, s);
+            int despues = ix == u ? nodoEnlace(t[3]) : vecinoHacia(ix, u);
+            return clase(antes - n) != clase(despues - n);
+        }
+        return false;
+    }
+
+    /**
+     * ¿Eliminar la vía idVia desconecta a de b?
+     */
+    public synchronized boolean desconectaVia(int idVia, long a, long b) {
+        if (!esPuente(idVia)) return false;
+        List<int[]> tramos = tramos(grafo.getIndice(a), grafo.getIndice(b));
+        if (tramos == null) return false;
+        int bloque = bloqueDeVia[idVia];
+        for (int[] t : tramos) {
+            if (bloque >= bloquesBase) {
+                if (t[3] == bloque - bloquesBase) return true;
+            } else if (raiz[t[0]] == raiz[n + bloque] && enCamino(n + bloque, t[0], t[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Municipios que pierden conexión con el resto de su componente si se
+     * elimina x: todos los fragmentos resultantes salvo el más grande.
+     * Cuesta O(tamaño de la respuesta + grado de x en el árbol), más los
+     * árboles enlazados que cuelgan de cada fragmento.
+     */
+    public synchronized List<Long> municipiosAisladosSin(long x) {
+        asegurarActualizado();
+        int ix = grafo.getIndice(x);
+        if (bloquesPorNodo[ix] < 2) return new ArrayList<>();
+
+        // Un fragmento por cada bloque vecino de x; los bloques fusionados comparten fragmento
+        Map<Integer, Fragmento> porClase = new LinkedHashMap<>();
+        int r = raiz[ix];
+        for (int k = inicioHijos[ix]; k < inicioHijos[ix + 1]; k++) {
+            int h = hijos[k];
+            if (h != padre[ix]) agregarRango(r, vIni[h], vFin[h], fragmento(porClase, h));
+        }
+        if (padre[ix] != -1) {
+            Fragmento resto = fragmento(porClase, padre[ix]);
+            agregarRango(r, vIni[r], vIni[ix], resto);
+            agregarRango(r, vFin[ix], vFin[r], resto);
+        }
+        for (int e : enlacesDe(r)) {
+            if (extremoEn(e, r) == ix) agregarColgantes(otroArbol(e, r), e, fragmento(porClase, nodoEnlace(e)));
+        }
+        if (porClase.size() < 2) return new ArrayList<>();
+        return fueraDelMayor(new ArrayList<>(porClase.values()));
+    }
+
+    /**
+     * Municipios que quedan separados del lado mayor si se elimina la vía.
+     */
+    public synchronized List<Long> municipiosAisladosSinVia(int idVia) {
+        if (!esPuente(idVia)) return new ArrayList<>();
+        int bloque = bloqueDeVia[idVia];
+        Fragmento uno = new Fragmento(), otro = new Fragmento();
+        if (bloque >= bloquesBase) {
+            int e = bloque - bloquesBase;
+            agregarColgantes(raiz[enlaceU[e]], e, uno);
+            agregarColgantes(raiz[enlaceW[e]], e, otro);
+        } else {
+            int nodoBloque = n + bloque;
+            int hijo = -1;
+            for (int k = inicioHijos[nodoBloque]; k < inicioHijos[nodoBloque + 1]; k++) {
+                if (hijos[k] != padre[nodoBloque]) hijo = hijos[k];
+            }
+            int r = raiz[nodoBloque];
+            agregarRango(r, vIni[hijo], vFin[hijo], uno);
+            agregarRango(r, vIni[r], vIni[hijo], otro);
+            agregarRango(r, vFin[hijo], vFin[r], otro);
+        }
+        return fueraDelMayor(List.of(uno, otro));
+    }
+
+    public synchronized int getNumBloques() {
+        asegurarActualizado();
+        return numClases;
+    }
+
+    // Parte de una componente: rangos [ini, fin) sobre ordenVertices
+    private static class Fragmento {
+        int[] rangos = new int[4];
+        int largo;
+        long tam;
+
+        void agregar(int ini, int fin) {
+            if (ini >= fin) return;
+            if (largo == rangos.length) rangos = Arrays.copyOf(rangos, largo * 2);
+            rangos[largo++] = ini;
+            rangos[largo++] = fin;
+            tam += fin - ini;
+        }
+    }
+
+    private Fragmento fragmento(Map<Integer, Fragmento> porClase, int nodoBloque) {
+        return porClase.computeIfAbsent(clase(nodoBloque - n), c -> new Fragmento());
+    }
+
+    private List<Long> fueraDelMayor(List<Fragmento> fragmentos) {
+        int mayor = 0;
+        for (int f = 1; f < fragmentos.size(); f++) {
+            if (fragmentos.get(f).tam > fragmentos.get(mayor).tam) mayor = f;
+        }
+        List<Long> aislados = new ArrayList<>();
+        for (int f = 0; f < fragmentos.size(); f++) {
+            if (f == mayor) continue;
+            Fragmento fr = fragmentos.get(f);
+            for (int k = 0; k < fr.largo; k += 2) {
+                for (int p = fr.rangos[k]; p < fr.rangos[k + 1]; p++) {
+                    aislados.add(grafo.getIdExterno(ordenVertices[p]));
+                }
+            }
+        }
+        return aislados;
+    }
+
+    /**
+     * Agrega un rango del árbol base más todos los árboles enlazados a
+     * municipios de ese rango.
+     */
+    private void agregarRango(int arbol, int ini, int fin, Fragmento f) {
+        f.agregar(ini, fin);
+        for (int e : enlacesDe(arbol)) {
+            int p = vIni[extremoEn(e, arbol)];
+            if (ini <= p && p < fin) agregarColgantes(otroArbol(e, arbol), e, f);
+        }
+    }
+
+    /** Agrega el árbol base dado y lo que cuelga de él, sin volver por el enlace de llegada. */
+    private void agregarColgantes(int arbol, int enlaceLlegada, Fragmento f) {
+        Deque<int[]> pila = new ArrayDeque<>();
+        pila.push(new int[]{arbol, enlaceLlegada});
+        while (!pila.isEmpty()) {
+            int[] actual = pila.pop();
+            f.agregar(vIni[actual[0]], vFin[actual[0]]);
+            for (int e : enlacesDe(actual[0])) {
+                if (e != actual[1]) pila.push(new int[]{otroArbol(e, actual[0]), e});
+            }
+        }
+    }
+
+    // =============================================
+    //  ACTUALIZACIÓN INCREMENTAL
+    // =============================================
+
+    @Override
+    public synchronized void viaAgregada(int idVia, long origen, long destino, double distancia, String estado) {
+        if (desactualizado) return;
+        int a = grafo.getIndice(origen), b = grafo.getIndice(destino);
+        if (a >= n || b >= n) {
+            desactualizado = true;
+            return;
+        }
+        if (idVia >= bloqueDeVia.length) {
+            int viejo = bloqueDeVia.length;
+            bloqueDeVia = Arrays.copyOf(bloqueDeVia, Math.max(idVia + 1, viejo * 2));
+            Arrays.fill(bloqueDeVia, viejo, bloqueDeVia.length, -1);
+        }
+        if (a == b) return; // un lazo no cambia la conectividad
+
+        List<int[]> tramos = tramos(a, b);
+        if (tramos == null) enlazar(idVia, a, b);
+        else fusionarCamino(idVia, tramos);
+    }
+
+    /**
+     * La vía cierra un ciclo: todos los bloques del camino entre sus extremos
+     * pasan a ser uno solo, y cada municipio interior cuyos dos vecinos en el
+     * camino eran bloques distintos pierde uno.
+     */
+    private void fusionarCamino(int idVia, List<int[]> tramos) {
+        int[] camino = nodosCamino(tramos);   // municipio, bloque, municipio, ..., bloque, municipio
+        int c = clase(camino[1] - n);
+        for (int i = 2; i + 1 < camino.length; i += 2) {
+            int siguiente = clase(camino[i + 1] - n);
+            if (siguiente == c) continue;
+            claseBloque[siguiente] = c;
+            aristasPorBloque[c] += aristasPorBloque[siguiente];
+            numClases--;
+            bloquesPorNodo[camino[i]]--;
+        }
+        aristasPorBloque[c]++;
+        bloqueDeVia[idVia] = c;
+    }
+
+    /** La vía une dos árboles distintos: se agrega como bloque puente entre ellos. */
+    private void enlazar(int idVia, int a, int b) {
+        int e = numEnlaces++;
+        int bloque = numBloques++;
+        if (e == enlaceU.length) {
+            enlaceU = Arrays.copyOf(enlaceU, Math.max(4, e * 2));
+            enlaceW = Arrays.copyOf(enlaceW, enlaceU.length);
+        }
+        if (bloque == claseBloque.length) {
+            claseBloque = Arrays.copyOf(claseBloque, bloque * 2);
+            aristasPorBloque = Arrays.copyOf(aristasPorBloque, claseBloque.length);
+        }
+        enlaceU[e] = a;
+        enlaceW[e] = b;
+        claseBloque[bloque] = bloque;
+        aristasPorBloque[bloque] = 1;
+        bloqueDeVia[idVia] = bloque;
+        bloquesPorNodo[a]++;
+        bloquesPorNodo[b]++;
+        numClases++;
+        enlacesPorArbol.computeIfAbsent(raiz[a], k -> new ArrayList<>()).add(e);
+        enlacesPorArbol.computeIfAbsent(raiz[b], k -> new ArrayList<>()).add(e);
+        grupo[raizGrupo(raiz[b])] = raizGrupo(raiz[a]);
+    }
+
+    @Override
+    public synchronized void municipioAgregado(long id, String nombre) {
+        desactualizado = true;
+    }
+
+    @Override
+    public synchronized void viaEliminada(int idVia) {
+        desactualizado = true;
+    }
+
+    @Override
+    public synchronized void viaCerrada(int idVia, boolean cerrada) {
+        desactualizado = true;
+    }
+
+    @Override
+    public synchronized void indicesReordenados() {
+        desactualizado = true;
+    }
+
+    private void asegurarActualizado() {
+        if (desactualizado) construir();
+    }
+
+    // =============================================
+    //  CONSTRUCCIÓN
+    // =============================================
+
+    private void construir() {
+        n = grafo.getNumNodos();
+        List<List<Via>> listas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) listas.add(grafo.getVecinos(i));
+
+        List<Integer> verticesBloques = new ArrayList<>();
+        List<Integer> inicioBloques = new ArrayList<>();
+        calcularBloques(listas, verticesBloques, inicioBloques);
+        construirArbol(verticesBloques, inicioBloques);
+        construirTablaLca();
+
+        bloquesBase = numClases = numBloques;
+        claseBloque = new int[Math.max(1, numBloques)];
+        for (int k = 0; k < numBloques; k++) claseBloque[k] = k;
+        aristasPorBloque = Arrays.copyOf(aristasPorBloque, claseBloque.length);
+        enlaceU = new int[0];
+        enlaceW = new int[0];
+        numEnlaces = 0;
+        enlacesPorArbol.clear();
+        grupo = new int[n + numBloques];
+        for (int k = 0; k < grupo.length; k++) grupo[k] = k;
+        desactualizado = false;
+    }
+
+    /**
+     * Tarjan iterativo con pila de aristas. Cada bloque se guarda como un
+     * rango de verticesBloques; también llena bloqueDeVia y los contadores.
+     */
+    private void calcularBloques(List<List<Via>> listas, List<Integer> verticesBloques,
+                                 List<Integer> inicioBloques) {
+        int limiteVias = grafo.getLimiteIdVia();
+        bloqueDeVia = new int[Math.max(1, limiteVias)];
+        Arrays.fill(bloqueDeVia, -1);
+        bloquesPorNodo = new int[n];
+        List<Integer> aristas = new ArrayList<>();
+
+        int[] disc = new int[n];
+        int[] low = new int[n];
+        int[] viaPadre = new int[n];
+        int[] pos = new int[n];
+        int[] pilaNodos = new int[n];
+        int[] marca = new int[n];
+        Arrays.fill(disc, -1);
+        Arrays.fill(marca, -1);
+        int[] pilaVias = new int[limiteVias + 1];
+        int[] pilaU = new int[limiteVias + 1];
+        int[] pilaW = new int[limiteVias + 1];
+        int topeAristas = 0;
+        int tiempo = 0;
+        numBloques = 0;
+
+        for (int r = 0; r < n; r++) {
+            if (disc[r] != -1) continue;
+            int tope = 0;
+            disc[r] = low[r] = tiempo++;
+            viaPadre[r] = -1;
+            pilaNodos[tope++] = r;
+
+            while (tope > 0) {
+                int u = pilaNodos[tope - 1];
+                List<Via> vs = listas.get(u);
+                if (pos[u] < vs.size()) {
+                    Via v = vs.get(pos[u]++);
+                    int w = v.getIndiceDestino();
+                    if (!v.estaActiva() || v.getIdVia() == viaPadre[u] || w == u) continue;
+                    if (disc[w] == -1) {
+                        pilaVias[topeAristas] = v.getIdVia();
+                        pilaU[topeAristas] = u;
+                        pilaW[topeAristas++] = w;
+                        disc[w] = low[w] = tiempo++;
+                        viaPadre[w] = v.getIdVia();
+                        pilaNodos[tope++] = w;
+                    } else if (disc[w] < disc[u]) {
+                        pilaVias[topeAristas] = v.getIdVia();
+                        pilaU[topeAristas] = u;
+                        pilaW[topeAristas++] = w;
+                        low[u] = Math.min(low[u], disc[w]);
+                    }
+                } else {
+                    tope--;
+                    if (tope == 0) break;
+                    int p = pilaNodos[tope - 1];
+                    low[p] = Math.min(low[p], low[u]);
+                    if (low[u] >= disc[p]) {
+                        // p separa el subárbol de u: las aristas apiladas forman un bloque
+                        int b = numBloques++;
+                        inicioBloques.add(verticesBloques.size());
+                        int cuenta = 0;
+                        int id;
+                        do {
+                            topeAristas--;
+                            id = pilaVias[topeAristas];
+                            bloqueDeVia[id] = b;
+                            cuenta++;
+                            agregarAlBloque(pilaU[topeAristas], b, marca, verticesBloques);
+                            agregarAlBloque(pilaW[topeAristas], b, marca, verticesBloques);
+                        } while (id != viaPadre[u]);
+                        aristas.add(cuenta);
+                    }
+                }
+            }
+        }
+        inicioBloques.add(verticesBloques.size());
+        aristasPorBloque = new int[numBloques];
+        for (int b = 0; b < numBloques; b++) aristasPorBloque[b] = aristas.get(b);
+    }
+
+    private void agregarAlBloque(int x, int b, int[] marca, List<Integer> verticesBloques) {
+        if (marca[x] == b) return;
+        marca[x] = b;
+        verticesBloques.add(x);
+        bloquesPorNodo[x]++;
+    }
+
+    private void construirArbol(List<Integer> verticesBloques, List<Integer> inicioBloques) {
+        int total = n + numBloques;
+
+        // Lista de adyacencia del árbol en formato CSR
+        inicioHijos = new int[total + 1];
+        for (int b = 0; b < numBloques; b++) {
+            for (int k = inicioBloques.get(b); k < inicioBloques.get(b + 1); k++) {
+                inicioHijos[verticesBloques.get(k) + 1]++;
+                inicioHijos[n + b + 1]++;
+            }
+        }
+        for (int t = 0; t < total; t++) inicioHijos[t + 1] += inicioHijos[t];
+        hijos = new int[inicioHijos[total]];
+        int[] llenado = Arrays.copyOf(inicioHijos, total);
+        for (int b = 0; b < numBloques; b++) {
+            for (int k = inicioBloques.get(b); k < inicioBloques.get(b + 1); k++) {
+                int v = verticesBloques.get(k);
+                hijos[llenado[v]++] = n + b;
+                hijos[llenado[n + b]++] = v;
+            }
+        }
+
+        padre = new int[total];
+        profundidad = new int[total];
+        entrada = new int[total];
+        salida = new int[total];
+        vIni = new int[total];
+        vFin = new int[total];
+        raiz = new int[total];
+        primeraVisita = new int[total];
+        ordenVertices = new int[n];
+        int[] euler = new int[2 * total];
+        int[] pos = new int[total];
+        int[] pila = new int[total];
+        boolean[] visitado = new boolean[total];
+        int tiempo = 0, vertices = 0, largoEuler = 0;
+
+        // Raíces: primero los bloques, luego los municipios sin vías activas
+        for (int k = 0; k < total; k++) {
+            int r = k < numBloques ? n + k : k - numBloques;
+            if (visitado[r]) continue;
+            int tope = 0;
+            pila[tope++] = r;
+            visitado[r] = true;
+            padre[r] = -1;
+            profundidad[r] = 0;
+
+            entrada[r] = tiempo++;
+            raiz[r] = r;
+            vIni[r] = vertices;
+            if (r < n) ordenVertices[vertices++] = r;
+            primeraVisita[r] = largoEuler;
+            euler[largoEuler++] = r;
+            pos[r] = inicioHijos[r];
+
+            while (tope > 0) {
+                int u = pila[tope - 1];
+                if (pos[u] < inicioHijos[u + 1]) {
+                    int w = hijos[pos[u]++];
+                    if (visitado[w]) continue;
+                    visitado[w] = true;
+                    padre[w] = u;
+                    profundidad[w] = profundidad[u] + 1;
+                    entrada[w] = tiempo++;
+                    raiz[w] = r;
+                    vIni[w] = vertices;
+                    if (w < n) ordenVertices[vertices++] = w;
+                    primeraVisita[w] = largoEuler;
+                    euler[largoEuler++] = w;
+                    pos[w] = inicioHijos[w];
+                    pila[tope++] = w;
+                } else {
+                    tope--;
+                    salida[u] = tiempo++;
+                    vFin[u] = vertices;
+                    if (tope > 0) euler[largoEuler++] = pila[tope - 1];
+                }
+            }
+        }
+        this.euler = Arrays.copyOf(euler, largoEuler);
+    }
+
+    private void construirTablaLca() {
+        int largo = euler.length;
+        int niveles = 1;
+        while ((1 << niveles) <= largo) niveles++;
+        tabla = new int[niveles][];
+        tabla[0] = euler;
+        for (int k = 1; k < niveles; k++) {
+            int salto = 1 << (k - 1);
+            int[] previo = tabla[k - 1];
+            int[] actual = new int[largo - (1 << k) + 1];
+            for (int i = 0; i < actual.length; i++) {
+                int a = previo[i], b = previo[i + salto];
+                actual[i] = profundidad[a] <= profundidad[b] ? a : b;
+            }
+            tabla[k] = actual;
+        }
+    }
+
+    // =============================================
+    //  UTILIDADES DEL ÁRBOL
+    // =============================================
+
+    /** LCA de dos nodos del mismo árbol en O(1). */
+    private int lca(int a, int b) {
+        int l = primeraVisita[a], r = primeraVisita[b];
+        if (l > r) {
+            int t = l;
+            l = r;
+            r = t;
+        }
+        int k = 31 - Integer.numberOfLeadingZeros(r - l + 1);
+        int x = tabla[k][l], y = tabla[k][r - (1 << k) + 1];
+        return profundidad[x] <= profundidad[y] ? x : y;
+    }
+
+    private boolean esAncestro(int p, int q) {
+        return entrada[p] <= entrada[q] && salida[q] <= salida[p];
+    }
+
+    /** ¿x está en el camino del árbol entre a y b? */
+    private boolean enCamino(int x, int a, int b) {
+        return esAncestro(lca(a, b), x) && (esAncestro(x, a) || esAncestro(x, b));
+    }
+
+    /** Vecino de x (en el árbol base) en dirección a y, con x != y en el mismo árbol. */
+    private int vecinoHacia(int x, int y) {
+        if (!esAncestro(x, y)) return padre[x];
+        for (int k = inicioHijos[x]; k < inicioHijos[x + 1]; k++) {
+            int h = hijos[k];
+            if (h != padre[x] && esAncestro(h, y)) return h;
+        }
+        throw new IllegalStateException("Árbol de bloques inconsistente");
+    }
+
+    // =============================================
+    //  FUSIONES Y ENLACES
+    // =============================================
+
+    private int clase(int bloque) {
+        while (claseBloque[bloque] != bloque) {
+            claseBloque[bloque] = claseBloque[claseBloque[bloque]];
+            bloque = claseBloque[bloque];
+        }
+        return bloque;
+    }
+
+    private int raizGrupo(int arbol) {
+        while (grupo[arbol] != arbol) {
+            grupo[arbol] = grupo[grupo[arbol]];
+            arbol = grupo[arbol];
+        }
+        return arbol;
+    }
+
+    private int nodoEnlace(int e) {
+        return n + bloquesBase + e;
+    }
+
+    private List<Integer> enlacesDe(int arbol) {
+        return enlacesPorArbol.getOrDefault(arbol, Collections.emptyList());
+    }
+
+    private int extremoEn(int e, int arbol) {
+        return raiz[enlaceU[e]] == arbol ? enlaceU[e] : enlaceW[e];
+    }
+
+    private int otroArbol(int e, int arbol) {
+        return raiz[enlaceU[e]] == arbol ? raiz[enlaceW[e]] : raiz[enlaceU[e]];
+    }
+
+    /**
+     * Descompone el camino entre a y b en tramos dentro de un mismo árbol
+     * base, unidos por enlaces: {inicio, fin, enlace de entrada, enlace de
+     * salida} (-1 en los extremos). null si a y b no están conectados.
+     */
+    private List<int[]> tramos(int a, int b) {
+        List<int[]> tramos = new ArrayList<>();
+        int ta = raiz[a], tb = raiz[b];
+        if (ta == tb) {
+            tramos.add(new int[]{a, b, -1, -1});
+            return tramos;
+        }
+        if (raizGrupo(ta) != raizGrupo(tb)) return null;
+
+        // BFS desde el árbol de b: llegada[t] = enlace que acerca t hacia b
+        Map<Integer, Integer> llegada = new HashMap<>();
+        Deque<Integer> cola = new ArrayDeque<>();
+        llegada.put(tb, -1);
+        cola.add(tb);
+        while (!cola.isEmpty()) {
+            int t = cola.poll();
+            if (t == ta) break;
+            for (int e : enlacesDe(t)) {
+                int otro = otroArbol(e, t);
+                if (!llegada.containsKey(otro)) {
+                    llegada.put(otro, e);
+                    cola.add(otro);
+                }
+            }
+        }
+        int inicio = a, anterior = -1;
+        for (int t = ta; t != tb; ) {
+            int e = llegada.get(t);
+            int salidaEnlace = extremoEn(e, t);
+            tramos.add(new int[]{inicio, salidaEnlace, anterior, e});
+            inicio = salidaEnlace == enlaceU[e] ? enlaceW[e] : enlaceU[e];
+            anterior = e;
+            t = raiz[inicio];
+        }
+        tramos.add(new int[]{inicio, b, anterior, -1});
+        return tramos;
+    }
+
+    /** Nodos del árbol (municipios y bloques) a lo largo de los tramos, en orden. */
+    private int[] nodosCamino(List<int[]> tramos) {
+        List<Integer> camino = new ArrayList<>();
+        List<Integer> bajada = new ArrayList<>();
+        for (int[] t : tramos) {
+            int l = lca(t[0], t[1]);
+            for (int v = t[0]; v != l; v = padre[v]) camino.add(v);
+            camino.add(l);
+            bajada.clear();
+            for (int v = t[1]; v != l; v = padre[v]) bajada.add(v);
+            for (int k = bajada.size() - 1; k >= 0; k--) camino.add(bajada.get(k));
+            if (t[3] != -1) camino.add(nodoEnlace(t[3]));
+        }
+        return camino.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,223 @@
+package co.edu.remington.grafos.algoritmos;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.Via;
+import co.edu.remington.grafos.utilidades.MonticuloIndexado;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Centralidad de intermediación (algoritmo de Brandes) para municipios y vías.
+ *
+ * Mide cuántos caminos mínimos entre pares de municipios pasan por cada nodo o
+ * vía, lo que permite ordenar por criticidad en lugar del sí/no de
+ * encontrarMunicipiosPuente. Cada fuente es un Dijkstra independiente: las
+ * fuentes se reparten entre hilos, cada uno con su propio acumulador, y los
+ * acumuladores se suman al final.
+ */
+public class Intermediacion {
+
+    // Tolerancia para considerar empatadas dos distancias acumuladas en double
+    private static final double EPS = 1e-9;
+
+    private GrafoCasanare grafo;
+
+    public Intermediacion(GrafoCasanare grafo) {
+        this.grafo = grafo;
+    }
+
+    // =============================================
+    //  RESULTADO
+    // =============================================
+
+    /**
+     * nodos[] por índice compacto, vias[] por idVia.
+     */
+    public static class Resultado {
+        public final double[] nodos;
+        public final double[] vias;
+
+        public Resultado(double[] nodos, double[] vias) {
+            this.nodos = nodos;
+            this.vias = vias;
+        }
+    }
+
+    // =============================================
+    //  CÁLCULO EXACTO Y MUESTREADO
+    // =============================================
+
+    /**
+     * Intermediación exacta: un Dijkstra por cada municipio.
+     *
+     * @param penalizar true = usar distancias penalizadas por estado de vía
+     */
+    public Resultado calcularExacta(boolean penalizar) {
+        return calcular(IntStream.range(0, grafo.getNumNodos()).toArray(), 1.0, penalizar);
+    }
+
+    /**
+     * Intermediación aproximada a partir de una muestra aleatoria de fuentes,
+     * escalada por n / muestras. Útil en redes grandes.
+     *
+     * @throws IllegalArgumentException si muestras no es positivo
+     */
+    public Resultado calcularMuestreada(int muestras, long semilla, boolean penalizar) {
+        if (muestras <= 0) throw new IllegalArgumentException("Número de muestras inválido: " + muestras);
+        int n = grafo.getNumNodos();
+        if (muestras >= n) return calcularExacta(penalizar);
+
+        // Fisher-Yates parcial para elegir fuentes sin repetición
+        int[] todas = IntStream.range(0, n).toArray();
+        Random rnd = new Random(semilla);
+        for (int i = 0; i < muestras; i++) {
+            int j = i + rnd.nextInt(n - i);
+            int tmp = todas[i];
+            todas[i] = todas[j];
+            todas[j] = tmp;
+        }
+        return calcular(Arrays.copyOf(todas, muestras), (double) n / muestras, penalizar);
+    }
+
+    private Resultado calcular(int[] fuentes, double escala, boolean penalizar) {
+        Acumulador total = IntStream.of(fuentes).parallel().collect(
+                () -> new Acumulador(penalizar),
+                Acumulador::procesarFuente,
+                Acumulador::combinar);
+
+        // Grafo no dirigido: cada par (s, t) se contó en ambos sentidos
+        double factor = escala / 2.0;
+        for (int i = 0; i < total.nodos.length; i++) total.nodos[i] *= factor;
+        for (int i = 0; i < total.vias.length; i++) total.vias[i] *= factor;
+        return new Resultado(total.nodos, total.vias);
+    }
+
+    // =============================================
+    //  ACUMULADOR POR HILO
+    // =============================================
+
+    /**
+     * Arreglos de trabajo y acumulados de un hilo. Se reutilizan entre fuentes:
+     * solo se limpian las posiciones que tocó la fuente anterior.
+     */
+    private class Acumulador {
+        final boolean penalizar;
+        final double[] nodos;
+        final double[] vias;
+
+        final double[] dist;
+        final double[] sigma;   // número de caminos mínimos
+        final double[] delta;   // dependencia acumulada
+        final int[] pila;       // nodos en orden de cierre
+        final MonticuloIndexado pq;
+
+        Acumulador(boolean penalizar) {
+            int n = grafo.getNumNodos();
+            this.penalizar = penalizar;
+            nodos = new double[n];
+            vias = new double[grafo.getLimiteIdVia()];
+            dist = new double[n];
+            sigma = new double[n];
+            delta = new double[n];
+            pila = new int[n];
+            pq = new MonticuloIndexado(n);
+            Arrays.fill(dist, Double.MAX_VALUE);
+        }
+
+        void procesarFuente(int s) {
+            int cerrados = 0;
+            dist[s] = 0;
+            sigma[s] = 1;
+            pq.insertarOReducir(s, 0);
+
+            // Fase 1: Dijkstra contando caminos mínimos
+            while (!pq.estaVacio()) {
+                int u = pq.extraerMin();
+                pila[cerrados++] = u;
+                for (Via v : grafo.getVecinos(u)) {
+                    if (!v.estaActiva()) continue;
+                    int w = v.getIndiceDestino();
+                    double nuevaDist = dist[u] + peso(v);
+                    if (nuevaDist < dist[w] - EPS) {
+                        dist[w] = nuevaDist;
+                        sigma[w] = sigma[u];
+                        pq.insertarOReducir(w, nuevaDist);
+                    } else if (Math.abs(nuevaDist - dist[w]) <= EPS) {
+                        sigma[w] += sigma[u];
+                    }
+                }
+            }
+
+            // Fase 2: acumulación de dependencias en orden inverso de cierre.
+            // Los predecesores de w se recalculan desde sus vías en vez de guardarlos.
+            for (int i = cerrados - 1; i >= 0; i--) {
+                int w = pila[i];
+                for (Via v : grafo.getVecinos(w)) {
+                    if (!v.estaActiva()) continue;
+                    int u = v.getIndiceDestino();
+                    if (Math.abs(dist[u] + peso(v) - dist[w]) <= EPS && dist[u] < dist[w]) {
+                        double c = sigma[u] / sigma[w] * (1 + delta[w]);
+                        delta[u] += c;
+                        vias[v.getIdVia()] += c;
+                    }
+                }
+                if (w != s) nodos[w] += delta[w];
+            }
+
+            // Limpieza proporcional a lo visitado
+            for (int i = 0; i < cerrados; i++) {
+                int w = pila[i];
+                dist[w] = Double.MAX_VALUE;
+                sigma[w] = 0;
+                delta[w] = 0;
+            }
+        }
+
+        void combinar(Acumulador otro) {
+            for (int i = 0; i < nodos.length; i++) nodos[i] += otro.nodos[i];
+            for (int i = 0; i < vias.length; i++) vias[i] += otro.vias[i];
+        }
+
+        private double peso(Via v) {
+            return penalizar ? v.getDistanciaPenalizada() : v.getDistancia();
+        }
+    }
+
+    // =============================================
+    //  MOSTRAR RANKING
+    // =============================================
+
+    /**
+     * Muestra los municipios y vías con mayor intermediación.
+     */
+    public void mostrarRanking(int top, boolean penalizar) {
+        Resultado res = calcularExacta(penalizar);
+        String modo = penalizar ? "PENALIZADA (estado vía)" : "REAL (km)";
+
+        System.out.println("\n======= CRITICIDAD POR INTERMEDIACIÓN [Distancia " + modo + "] =======");
+        List<Long> ordenNodos = new ArrayList<>(grafo.getIds());
+        ordenNodos.sort((a, b) -> Double.compare(res.nodos[grafo.getIndice(b)], res.nodos[grafo.getIndice(a)]));
+        System.out.printf("%-5s %-20s %-12s%n", "Pos", "Municipio", "Caminos");
+        System.out.println("-".repeat(40));
+        for (int i = 0; i < Math.min(top, ordenNodos.size()); i++) {
+            long id = ordenNodos.get(i);
+            System.out.printf("%-5d %-20s %-12.2f%n", i + 1, grafo.getNombre(id), res.nodos[grafo.getIndice(id)]);
+        }
+
+        List<Integer> ordenVias = new ArrayList<>();
+        for (int id = 0; id < res.vias.length; id++) {
+            Via v = grafo.getVia(id);
+            if (v != null && v.estaActiva()) ordenVias.add(id);
+        }
+        ordenVias.sort((a, b) -> Double.compare(res.vias[b], res.vias[a]));
+        System.out.printf("%n%-5s %-40s %-12s%n", "Pos", "Vía", "Caminos");
+        System.out.println("-".repeat(60));
+        for (int i = 0; i < Math.min(top, ordenVias.size()); i++) {
+            Via v = grafo.getVia(ordenVias.get(i));
+            String nombre = grafo.getNombre(v.getInversa().getDestino()) + " <-> " + grafo.getNombre(v.getDestino());
+            System.out.printf("%-5d %-40s %-12.2f%n", i + 1, nombre, res.vias[ordenVias.get(i)]);
+        }
+        System.out.println("=".repeat(60) + "\n");
+    }
+}
@@ -0,0 +1,116 @@
+package co.edu.remington.grafos.algoritmos;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.Via;
+import co.edu.remington.grafos.utilidades.EspacioBusqueda;
+import co.edu.remington.grafos.utilidades.MonticuloIndexado;
+import co.edu.remington.grafos.utilidades.PoolEspacios;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Búsqueda de alcance acotado (isócrona): municipios a una distancia
+ * menor o igual que un radio desde un centro.
+ *
+ * Es un Dijkstra que nunca inserta en la cola nodos más allá del radio,
+ * por lo que se detiene al agotar la región alcanzable y solo toca los
+ * nodos de esa región. Los arreglos salen de un pool de espacios con sellos
+ * de época, así que no se rellenan por el tamaño del grafo en cada consulta.
+ */
+public class Isocrona {
+
+    private GrafoCasanare grafo;
+    private final PoolEspacios espacios = new PoolEspacios();
+
+    public Isocrona(GrafoCasanare grafo) {
+        this.grafo = grafo;
+    }
+
+    // =============================================
+    //  BÚSQUEDA DESDE UN CENTRO
+    // =============================================
+
+    /**
+     * Calcula los municipios alcanzables desde el centro sin superar el radio.
+     *
+     * @param centro    ID del municipio centro
+     * @param radio     distancia máxima (km reales o penalizados)
+     * @param penalizar true = usar distancias penalizadas por estado de vía
+     * @return mapa ID -> distancia, en orden creciente de distancia (incluye el centro)
+     */
+    public Map<Long, Double> calcular(long centro, double radio, boolean penalizar) {
+        Map<Long, Double> alcanzables = new LinkedHashMap<>();
+        int s = grafo.getIndice(centro);
+        if (s < 0 || radio < 0) return alcanzables;
+
+        try (EspacioBusqueda e = espacios.tomar(grafo.getNumNodos())) {
+            MonticuloIndexado pq = e.getMonticulo();
+            e.actualizar(s, 0, -1);
+            pq.insertarOReducir(s, 0);
+
+            while (!pq.estaVacio()) {
+                int u = pq.extraerMin();
+                double dU = e.getDist(u);
+                e.cerrar(u);
+                alcanzables.put(grafo.getIdExterno(u), dU);
+
+                for (Via v : grafo.getVecinos(u)) {
+                    if (!v.estaActiva()) continue;
+                    double nuevaDist = dU + (penalizar ? v.getDistanciaPenalizada() : v.getDistancia());
+                    if (nuevaDist > radio) continue;
+                    int w = v.getIndiceDestino();
+                    if (!e.estaCerrado(w) && nuevaDist < e.getDist(w)) {
+                        e.actualizar(w, nuevaDist, u);
+                        pq.insertarOReducir(w, nuevaDist);
+                    }
+                }
+            }
+        }
+        return alcanzables;
+    }
+
+    // =============================================
+    //  BÚSQUEDA EN LOTE (VARIOS CENTROS)
+    // =============================================
+
+    /**
+     * Calcula la isócrona de cada centro en paralelo.
+     * Cada búsqueda es independiente y solo lee el grafo.
+     *
+     * @return mapa centro -> (ID -> distancia), en el mismo orden de la lista de centros
+     */
+    public Map<Long, Map<Long, Double>> calcularLote(List<Long> centros, double radio,
+                                                    boolean penalizar) {
+        List<Map<Long, Double>> resultados = new ArrayList<>(Collections.nCopies(centros.size(), null));
+        IntStream.range(0, centros.size()).parallel()
+                .forEach(i -> resultados.set(i, calcular(centros.get(i), radio, penalizar)));
+
+        Map<Long, Map<Long, Double>> porCentro = new LinkedHashMap<>();
+        for (int i = 0; i < centros.size(); i++) {
+            porCentro.put(centros.get(i), resultados.get(i));
+        }
+        return porCentro;
+    }
+
+    // =============================================
+    //  MOSTRAR RESULTADOS
+    // =============================================
+
+    public void mostrar(long centro, double radio, boolean penalizar) {
+        Map<Long, Double> alcanzables = calcular(centro, radio, penalizar);
+        String modo = penalizar ? "penalizada" : "real";
+
+        System.out.printf("\n======= MUNICIPIOS A <= %.1f km de %s [distancia %s] =======%n",
+                radio, grafo.getNombre(centro), modo);
+        System.out.printf("%-20s %-12s%n", "Municipio", "Dist (km)");
+        System.out.println("-".repeat(40));
+        for (Map.Entry<Long, Double> e : alcanzables.entrySet()) {
+            if (e.getKey() == centro) continue;
+            System.out.printf("%-20s %-12.2f%n", grafo.getNombre(e.getKey()), e.getValue());
+        }
+        System.out.println("-".repeat(40));
+        System.out.println("Total alcanzables: " + (alcanzables.size() - 1));
+        System.out.println("=".repeat(40) + "\n");
+    }
+}
@@ -0,0 +1,325 @@
+package co.edu.remington.grafos.algoritmos;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.Via;
+import co.edu.remington.grafos.utilidades.MapaLongInt;
+import co.edu.remington.grafos.utilidades.MonticuloIndexado;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Oráculo de distancias por etiquetado de hubs (pruned landmark labeling).
+ *
+ * Cada municipio v guarda una etiqueta L(v) = {(hub, d(v, hub))} tal que para
+ * todo par (s, t) algún hub común está sobre un camino mínimo. La distancia
+ * se obtiene mezclando dos etiquetas ordenadas, sin recorrer el grafo.
+ * Solo da distancias, no caminos.
+ *
+ * Las etiquetas viven en arreglos planos fuera del heap, o en un archivo
+ * mapeado en memoria (little-endian):
+ *   cabecera (32 bytes): MAGIA, VERSION, numNodos, numEntradas, firma (long), modo, relleno
+ *   distancias  double[numEntradas]
+ *   ids         long[numNodos]      ID externo de cada índice compacto
+ *   inicio      int[numNodos + 1]   primera entrada de cada etiqueta
+ *   hubs        int[numEntradas]    rango del hub, creciente dentro de cada etiqueta
+ *
+ * Es una instantánea: si el grafo cambia hay que reconstruirlo (ver esVigente).
+ */
+public class OraculoDistancias {
+
+    private static final int MAGIA = 0x48554253; // "HUBS"
+    private static final int VERSION = 2;
+    private static final int CABECERA = 32;
+
+    private final int numNodos;
+    private final int numEntradas;
+    private final long firma;
+    private final boolean penalizar;
+    private final DoubleBuffer distancias;
+    private final LongBuffer ids;
+    private final IntBuffer inicio;
+    private final IntBuffer hubs;
+    private final MapaLongInt indices;
+
+    private OraculoDistancias(int numNodos, int numEntradas, long firma, boolean penalizar, ByteBuffer[] secciones) {
+        this.numNodos = numNodos;
+        this.numEntradas = numEntradas;
+        this.firma = firma;
+        this.penalizar = penalizar;
+        this.distancias = secciones[0].asDoubleBuffer();
+        this.ids = secciones[1].asLongBuffer();
+        this.inicio = secciones[2].asIntBuffer();
+        this.hubs = secciones[3].asIntBuffer();
+
+        indices = new MapaLongInt(numNodos);
+        for (int i = 0; i < numNodos; i++) indices.put(ids.get(i), i);
+    }
+
+    // =============================================
+    //  CONSTRUCCIÓN
+    // =============================================
+
+    // Etiquetas en construcción: arreglos por nodo que crecen al doble
+    private static class Etiquetas {
+        final int[][] hub;
+        final double[][] dist;
+        final int[] tam;
+        long total;
+
+        Etiquetas(int n) {
+            hub = new int[n][2];
+            dist = new double[n][2];
+            tam = new int[n];
+        }
+
+        void agregar(int v, int h, double d) {
+            if (tam[v] == hub[v].length) {
+                hub[v] = Arrays.copyOf(hub[v], tam[v] * 2);
+                dist[v] = Arrays.copyOf(dist[v], tam[v] * 2);
+            }
+            hub[v][tam[v]] = h;
+            dist[v][tam[v]] = d;
+            tam[v]++;
+            total++;
+        }
+    }
+
+    /**
+     * Construye las etiquetas en memoria directa.
+     *
+     * @param penalizar true = distancias penalizadas por estado de vía
+     */
+    public static OraculoDistancias construir(GrafoCasanare grafo, boolean penalizar) {
+        int n = grafo.getNumNodos();
+        Etiquetas et = etiquetar(grafo, penalizar);
+        int m = comprobarTamanio(et.total);
+        ByteBuffer[] secciones = new ByteBuffer[4];
+        long[] tamanios = tamaniosSecciones(n, m);
+        for (int s = 0; s < secciones.length; s++) {
+            secciones[s] = ByteBuffer.allocateDirect((int) tamanios[s]).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        volcar(grafo, et, secciones);
+        return new OraculoDistancias(n, m, grafo.calcularFirma(), penalizar, secciones);
+    }
+
+    /**
+     * Construye las etiquetas, las escribe en un archivo y lo deja mapeado en memoria.
+     */
+    public static OraculoDistancias construir(GrafoCasanare grafo, boolean penalizar, Path archivo) throws IOException {
+        int n = grafo.getNumNodos();
+        Etiquetas et = etiquetar(grafo, penalizar);
+        int m = comprobarTamanio(et.total);
+        long firma = grafo.calcularFirma();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+            cabecera.putInt(MAGIA).putInt(VERSION).putInt(n).putInt(m)
+                    .putLong(firma).putInt(penalizar ? 1 : 0).putInt(0).flip();
+            canal.write(cabecera, 0);
+
+            MappedByteBuffer[] mapeos = mapear(canal, FileChannel.MapMode.READ_WRITE, n, m);
+            volcar(grafo, et, mapeos);
+            for (MappedByteBuffer mb : mapeos) mb.force();
+            return new OraculoDistancias(n, m, firma, penalizar, mapeos);
+        }
+    }
+
+    /**
+     * Abre (solo lectura) un archivo creado con construir(grafo, penalizar, archivo).
+     */
+    public static OraculoDistancias abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+            canal.read(cabecera, 0);
+            cabecera.flip();
+            if (cabecera.remaining() < CABECERA || cabecera.getInt() != MAGIA || cabecera.getInt() != VERSION) {
+                throw new IOException("Archivo de etiquetas inválido: " + archivo);
+            }
+            int n = cabecera.getInt();
+            int m = cabecera.getInt();
+            long firma = cabecera.getLong();
+            boolean penalizar = cabecera.getInt() == 1;
+            MappedByteBuffer[] mapeos = mapear(canal, FileChannel.MapMode.READ_ONLY, n, m);
+            return new OraculoDistancias(n, m, firma, penalizar, mapeos);
+        }
+    }
+
+    /**
+     * Etiquetado podado: se procesa un hub por rango (mayor grado primero) y su
+     * Dijkstra se corta en todo nodo cuya distancia ya queda cubierta por las
+     * etiquetas de hubs anteriores. Los hubs se agregan en orden de rango, así
+     * que cada etiqueta queda ordenada sin un paso extra.
+     */
+    private static Etiquetas etiquetar(GrafoCasanare grafo, boolean penalizar) {
+        int n = grafo.getNumNodos();
+        Integer[] porGrado = new Integer[n];
+        int[] grado = new int[n];
+        for (int i = 0; i < n; i++) {
+            porGrado[i] = i;
+            for (Via v : grafo.getVecinos(i)) {
+                if (v.estaActiva()) grado[i]++;
+            }
+        }
+        Arrays.sort(porGrado, (a, b) -> grado[a] != grado[b] ? Integer.compare(grado[b], grado[a]) : Integer.compare(a, b));
+
+        Etiquetas et = new Etiquetas(n);
+        double[] dist = new double[n];
+        Arrays.fill(dist, Double.MAX_VALUE);
+        double[] distHub = new double[n];       // d(hub, x) por rango x, para consultas O(|L(u)|)
+        Arrays.fill(distHub, Double.MAX_VALUE);
+        int[] tocados = new int[n];
+        MonticuloIndexado pq = new MonticuloIndexado(n);
+
+        for (int rango = 0; rango < n; rango++) {
+            int h = porGrado[rango];
+            for (int j = 0; j < et.tam[h]; j++) distHub[et.hub[h][j]] = et.dist[h][j];
+
+            int numTocados = 0;
+            dist[h] = 0;
+            tocados[numTocados++] = h;
+            pq.insertarOReducir(h, 0);
+            while (!pq.estaVacio()) {
+                int u = pq.extraerMin();
+                double du = dist[u];
+
+                // Poda: si ya hay un hub común que da du o menos, no hace falta seguir por u
+                boolean cubierto = false;
+                for (int j = 0; j < et.tam[u]; j++) {
+                    double dh = distHub[et.hub[u][j]];
+                    if (dh != Double.MAX_VALUE && dh + et.dist[u][j] <= du) {
+                        cubierto = true;
+                        break;
+                    }
+                }
+                if (cubierto) continue;
+
+                et.agregar(u, rango, du);
+                for (Via v : grafo.getVecinos(u)) {
+                    if (!v.estaActiva()) continue;
+                    int w = v.getIndiceDestino();
+                    double nuevaDist = du + (penalizar ? v.getDistanciaPenalizada() : v.getDistancia());
+                    if (nuevaDist < dist[w]) {
+                        if (dist[w] == Double.MAX_VALUE) tocados[numTocados++] = w;
+                        dist[w] = nuevaDist;
+                        pq.insertarOReducir(w, nuevaDist);
+                    }
+                }
+            }
+
+            for (int j = 0; j < numTocados; j++) dist[tocados[j]] = Double.MAX_VALUE;
+            for (int j = 0; j < et.tam[h]; j++) distHub[et.hub[h][j]] = Double.MAX_VALUE;
+        }
+        return et;
+    }
+
+    private static int comprobarTamanio(long total) {
+        if (total * Double.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiadas entradas para una sección: " + total);
+        }
+        return (int) total;
+    }
+
+    private static long[] tamaniosSecciones(int n, int m) {
+        return new long[]{
+                (long) m * Double.BYTES,
+                (long) n * Long.BYTES,
+                (long) (n + 1) * Integer.BYTES,
+                (long) m * Integer.BYTES
+        };
+    }
+
+    private static MappedByteBuffer[] mapear(FileChannel canal, FileChannel.MapMode modo,
+                                             int n, int m) throws IOException {
+        long[] tamanios = tamaniosSecciones(n, m);
+        MappedByteBuffer[] mapeos = new MappedByteBuffer[tamanios.length];
+        long desplazamiento = CABECERA;
+        for (int s = 0; s < tamanios.length; s++) {
+            mapeos[s] = canal.map(modo, desplazamiento, tamanios[s]);
+            mapeos[s].order(ByteOrder.LITTLE_ENDIAN);
+            desplazamiento += tamanios[s];
+        }
+        return mapeos;
+    }
+
+    private static void volcar(GrafoCasanare grafo, Etiquetas et, ByteBuffer[] secciones) {
+        int n = grafo.getNumNodos();
+        int entrada = 0;
+        for (int i = 0; i < n; i++) {
+            secciones[1].putLong(i * Long.BYTES, grafo.getIdExterno(i));
+            secciones[2].putInt(i * Integer.BYTES, entrada);
+            for (int j = 0; j < et.tam[i]; j++) {
+                secciones[0].putDouble(entrada * Double.BYTES, et.dist[i][j]);
+                secciones[3].putInt(entrada * Integer.BYTES, et.hub[i][j]);
+                entrada++;
+            }
+        }
+        secciones[2].putInt(n * Integer.BYTES, entrada);
+    }
+
+    // =============================================
+    //  CONSULTAS
+    // =============================================
+
+    /**
+     * Distancia mínima entre dos municipios (IDs externos).
+     *
+     * @return Double.MAX_VALUE si no hay ruta
+     */
+    public double distancia(long origen, long destino) {
+        int s = indices.get(origen), t = indices.get(destino);
+        if (s < 0 || t < 0) throw new IllegalArgumentException("Municipio no existe en el oráculo.");
+        return distanciaIndices(s, t);
+    }
+
+    /**
+     * Igual que distancia(), pero con índices compactos: mezcla de las dos
+     * etiquetas ordenadas por rango de hub.
+     */
+    public double distanciaIndices(int s, int t) {
+        int i = inicio.get(s), finI = inicio.get(s + 1);
+        int j = inicio.get(t), finJ = inicio.get(t + 1);
+        double mejor = Double.MAX_VALUE;
+        while (i < finI && j < finJ) {
+            int hi = hubs.get(i), hj = hubs.get(j);
+            if (hi == hj) {
+                double d = distancias.get(i) + distancias.get(j);
+                if (d < mejor) mejor = d;
+                i++;
+                j++;
+            } else if (hi < hj) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * true si las etiquetas corresponden al estado actual del grafo.
+     */
+    public boolean esVigente(GrafoCasanare grafo) {
+        return grafo.calcularFirma() == firma;
+    }
+
+    public boolean isPenalizado() {
+        return penalizar;
+    }
+
+    public int getNumNodos() {
+        return numNodos;
+    }
+
+    public int getNumEntradas() {
+        return numEntradas;
+    }
+
+    public double tamanioMedioEtiqueta() {
+        return numNodos == 0 ? 0 : (double) numEntradas / numNodos;
+    }
+}
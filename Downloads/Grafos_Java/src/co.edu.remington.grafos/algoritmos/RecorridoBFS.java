@@ -17,6 +17,14 @@ public class RecorridoBFS {
         this.grafo = grafo;
     }
 
+    /**
+     * Orden de visita y nivel de cada municipio alcanzado desde el origen.
+     */
+    public static class Resultado {
+        public final List<Long> orden = new ArrayList<>();
+        public final Map<Long, Integer> nivel = new HashMap<>();
+    }
+
     /**
      * Ejecuta BFS desde el nodo origen dado.
      * Muestra el orden de visita y el nivel de cada municipio respecto al origen.
@@ -24,54 +32,65 @@ public class RecorridoBFS {
      * @param origen ID del nodo de inicio
      * @return Lista de nodos en orden de visita
      */
-    public List<Integer> ejecutar(int origen) {
-        Map<Integer, List<Via>> lista = grafo.getListaAdyacencia();
-        Set<Integer> visitados = new HashSet<>();
-        Queue<Integer> cola = new LinkedList<>();
-        Map<Integer, Integer> nivel = new HashMap<>();
-        List<Integer> orden = new ArrayList<>();
-
-        cola.add(origen);
-        visitados.add(origen);
-        nivel.put(origen, 0);
+    public List<Long> ejecutar(long origen) {
+        Resultado res = recorrer(origen);
 
         System.out.println("\n======= RECORRIDO BFS desde " + grafo.getNombre(origen) + " =======");
         System.out.printf("%-5s %-20s %-8s%n", "Paso", "Municipio", "Nivel");
         System.out.println("-".repeat(40));
 
         int paso = 1;
+        for (long id : res.orden) {
+            System.out.printf("%-5d %-20s %-8d%n",
+                    paso++, grafo.getNombre(id), res.nivel.get(id));
+        }
+
+        System.out.println("-".repeat(40));
+        System.out.println("Total municipios visitados: " + res.orden.size() +
+                " de " + grafo.getMunicipios().size());
+
+        // Detectar municipios no alcanzables
+        for (long id : grafo.getIds()) {
+            if (!res.nivel.containsKey(id)) {
+                System.out.println("  DESCONECTADO: " + grafo.getNombre(id) + " (" + id + ")");
+            }
+        }
+        System.out.println("==========================================\n");
+        return res.orden;
+    }
+
+    /**
+     * BFS desde el origen sin imprimir nada.
+     */
+    public Resultado recorrer(long origen) {
+        Map<Long, List<Via>> lista = grafo.getListaAdyacencia();
+        Set<Long> visitados = new HashSet<>();
+        Queue<Long> cola = new LinkedList<>();
+        Resultado res = new Resultado();
+        Map<Long, Integer> nivel = res.nivel;
+        List<Long> orden = res.orden;
+
+        cola.add(origen);
+        visitados.add(origen);
+        nivel.put(origen, 0);
+
         while (!cola.isEmpty()) {
-            int actual = cola.poll();
+            long actual = cola.poll();
             orden.add(actual);
             int nivelActual = nivel.get(actual);
 
-            System.out.printf("%-5d %-20s %-8d%n",
-                    paso++, grafo.getNombre(actual), nivelActual);
-
             // Ordenar vecinos para resultado determinista
             List<Via> vecinos = new ArrayList<>(lista.get(actual));
-            vecinos.sort(Comparator.comparingInt(Via::getDestino));
+            vecinos.sort(Comparator.comparingLong(Via::getDestino));
 
             for (Via v : vecinos) {
-                if (!visitados.contains(v.getDestino())) {
+                if (v.estaActiva() && !visitados.contains(v.getDestino())) {
                     visitados.add(v.getDestino());
                     cola.add(v.getDestino());
                     nivel.put(v.getDestino(), nivelActual + 1);
                 }
             }
         }
-
-        System.out.println("-".repeat(40));
-        System.out.println("Total municipios visitados: " + orden.size() +
-                " de " + grafo.getMunicipios().size());
-
-        // Detectar municipios no alcanzables
-        for (int id : grafo.getIds()) {
-            if (!visitados.contains(id)) {
-                System.out.println("  DESCONECTADO: " + grafo.getNombre(id) + " (" + id + ")");
-            }
-        }
-        System.out.println("==========================================\n");
-        return orden;
+        return res;
     }
 }
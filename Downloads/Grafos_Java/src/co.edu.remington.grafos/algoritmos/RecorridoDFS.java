@@ -12,8 +12,8 @@ import java.util.*;
 public class RecorridoDFS {
 
     private GrafoCasanare grafo;
-    private Set<Integer> visitados;
-    private List<Integer> orden;
+    private Set<Long> visitados;
+    private List<Long> orden;
     private List<String> camino;
     private int paso;
 
@@ -28,7 +28,7 @@ public class RecorridoDFS {
      * @param origen ID del nodo de inicio
      * @return Lista de nodos en orden DFS
      */
-    public List<Integer> ejecutar(int origen) {
+    public List<Long> ejecutar(long origen) {
         visitados = new HashSet<>();
         orden = new ArrayList<>();
         camino = new ArrayList<>();
@@ -46,7 +46,7 @@ public class RecorridoDFS {
         System.out.println("Orden completo: " + formatearOrden(orden));
 
         // Detectar municipios no alcanzables
-        for (int id : grafo.getIds()) {
+        for (long id : grafo.getIds()) {
             if (!visitados.contains(id)) {
                 System.out.println("  DESCONECTADO: " + grafo.getNombre(id) + " (" + id + ")");
             }
@@ -55,7 +55,7 @@ public class RecorridoDFS {
         return orden;
     }
 
-    private void dfsRecursivo(int nodo, String caminoActual) {
+    private void dfsRecursivo(long nodo, String caminoActual) {
         visitados.add(nodo);
         orden.add(nodo);
         camino.add(grafo.getNombre(nodo));
@@ -65,10 +65,10 @@ public class RecorridoDFS {
 
         // Ordenar vecinos para resultado determinista
         List<Via> vecinos = new ArrayList<>(grafo.getListaAdyacencia().get(nodo));
-        vecinos.sort(Comparator.comparingInt(Via::getDestino));
+        vecinos.sort(Comparator.comparingLong(Via::getDestino));
 
         for (Via v : vecinos) {
-            if (!visitados.contains(v.getDestino())) {
+            if (v.estaActiva() && !visitados.contains(v.getDestino())) {
                 String nuevoCamino = caminoActual + " -> " + grafo.getNombre(v.getDestino());
                 dfsRecursivo(v.getDestino(), nuevoCamino);
             }
@@ -76,7 +76,7 @@ public class RecorridoDFS {
         camino.remove(camino.size() - 1);
     }
 
-    private String formatearOrden(List<Integer> lista) {
+    private String formatearOrden(List<Long> lista) {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < lista.size(); i++) {
             sb.append(grafo.getNombre(lista.get(i)));
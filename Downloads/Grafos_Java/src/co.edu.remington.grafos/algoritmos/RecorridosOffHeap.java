@@ -0,0 +1,91 @@
+package co.edu.remington.grafos.algoritmos;
+
+import co.edu.remington.grafos.modelo.GrafoOffHeap;
+import co.edu.remington.grafos.utilidades.MonticuloIndexado;
+
+import java.util.Arrays;
+
+/**
+ * BFS y Dijkstra sobre GrafoOffHeap.
+ * Trabajan solo con arreglos primitivos y los buffers fuera del heap, sin crear
+ * objetos por arco visitado, para redes demasiado grandes para GrafoCasanare.
+ */
+public class RecorridosOffHeap {
+
+    private GrafoOffHeap grafo;
+
+    public RecorridosOffHeap(GrafoOffHeap grafo) {
+        this.grafo = grafo;
+    }
+
+    // =============================================
+    //  BFS
+    // =============================================
+
+    /**
+     * Ejecuta BFS desde el municipio origen (ID externo).
+     *
+     * @return nivel de cada nodo por índice compacto (-1 = no alcanzable)
+     */
+    public int[] bfs(long origen) {
+        int n = grafo.getNumNodos();
+        int[] nivel = new int[n];
+        int[] cola = new int[n];
+        Arrays.fill(nivel, -1);
+
+        int s = grafo.getIndice(origen);
+        int cabeza = 0, fin = 0;
+        cola[fin++] = s;
+        nivel[s] = 0;
+
+        while (cabeza < fin) {
+            int u = cola[cabeza++];
+            for (int e = grafo.inicioVecinos(u), f = grafo.finVecinos(u); e < f; e++) {
+                int w = grafo.destino(e);
+                if (nivel[w] < 0) {
+                    nivel[w] = nivel[u] + 1;
+                    cola[fin++] = w;
+                }
+            }
+        }
+        return nivel;
+    }
+
+    // =============================================
+    //  DIJKSTRA
+    // =============================================
+
+    /**
+     * Ejecuta Dijkstra desde el municipio origen (ID externo).
+     *
+     * @param penalizar true = usar distancias penalizadas por estado de vía
+     * @return Resultado indexado por índice compacto, igual que Dijkstra.calcular
+     */
+    public Dijkstra.Resultado dijkstra(long origen, boolean penalizar) {
+        int n = grafo.getNumNodos();
+        double[] dist = new double[n];
+        int[] anterior = new int[n];
+        Arrays.fill(dist, Double.MAX_VALUE);
+        Arrays.fill(anterior, -1);
+
+        int s = grafo.getIndice(origen);
+        dist[s] = 0;
+        MonticuloIndexado pq = new MonticuloIndexado(n);
+        pq.insertarOReducir(s, 0);
+
+        while (!pq.estaVacio()) {
+            int u = pq.extraerMin();
+            double dU = dist[u];
+            for (int e = grafo.inicioVecinos(u), f = grafo.finVecinos(u); e < f; e++) {
+                int w = grafo.destino(e);
+                double nuevaDist = dU + grafo.peso(e, penalizar);
+                if (nuevaDist < dist[w]) {
+                    dist[w] = nuevaDist;
+                    anterior[w] = u;
+                    pq.insertarOReducir(w, nuevaDist);
+                }
+            }
+        }
+        return new Dijkstra.Resultado(dist, anterior);
+    }
+}
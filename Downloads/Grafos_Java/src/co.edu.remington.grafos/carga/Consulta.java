@@ -0,0 +1,87 @@
+package co.edu.remington.grafos.carga;
+
+/**
+ * Una consulta del registro de carga. En texto ocupa una línea:
+ *
+ *   RUTA 0 6 real
+ *   TODAS_LAS_RUTAS 9 penalizada
+ *   RECORRIDO 9
+ *   CONECTIVIDAD
+ *   ARTICULACION
+ */
+public class Consulta {
+
+    public enum Tipo {
+        RUTA, TODAS_LAS_RUTAS, CONECTIVIDAD, ARTICULACION, RECORRIDO
+    }
+
+    private final Tipo tipo;
+    private final long origen;      // -1 si el tipo no lo usa
+    private final long destino;     // -1 si el tipo no lo usa
+    private final boolean penalizar;
+
+    public Consulta(Tipo tipo, long origen, long destino, boolean penalizar) {
+        this.tipo = tipo;
+        this.origen = origen;
+        this.destino = destino;
+        this.penalizar = penalizar;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public long getOrigen() {
+        return origen;
+    }
+
+    public long getDestino() {
+        return destino;
+    }
+
+    public boolean isPenalizar() {
+        return penalizar;
+    }
+
+    /**
+     * Lee una línea del registro.
+     * @throws IllegalArgumentException si la línea no tiene el formato esperado
+     */
+    public static Consulta desdeLinea(String linea) {
+        String[] p = linea.trim().split("\\s+");
+        try {
+            Tipo tipo = Tipo.valueOf(p[0]);
+            switch (tipo) {
+                case RUTA:
+                    return new Consulta(tipo, Long.parseLong(p[1]), Long.parseLong(p[2]), esPenalizada(p, 3));
+                case TODAS_LAS_RUTAS:
+                    return new Consulta(tipo, Long.parseLong(p[1]), -1, esPenalizada(p, 2));
+                case RECORRIDO:
+                    return new Consulta(tipo, Long.parseLong(p[1]), -1, false);
+                default:
+                    return new Consulta(tipo, -1, -1, false);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Consulta inválida: " + linea, e);
+        }
+    }
+
+    private static boolean esPenalizada(String[] p, int i) {
+        return p.length > i && p[i].equalsIgnoreCase("penalizada");
+    }
+
+    @Override
+    public String toString() {
+        String modo = penalizar ? "penalizada" : "real";
+        switch (tipo) {
+            case RUTA:
+                return tipo + " " + origen + " " + destino + " " + modo;
+            case TODAS_LAS_RUTAS:
+                return tipo + " " + origen + " " + modo;
+            case RECORRIDO:
+                return tipo + " " + origen;
+            default:
+                return tipo.toString();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package co.edu.remington.grafos.carga;
+
+import co.edu.remington.grafos.algoritmos.ArbolCaminos;
+import co.edu.remington.grafos.algoritmos.ComponentesConexas;
+import co.edu.remington.grafos.algoritmos.Dijkstra;
+import co.edu.remington.grafos.algoritmos.RecorridoBFS;
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de lazo abierto: reproduce un registro de consultas
+ * contra un GrafoCasanare a una tasa fija, con varios hilos.
+ *
+ * La consulta i tiene un instante programado inicio + i / tasa. Cada hilo
+ * toma la siguiente consulta, espera a su instante (si no llegó) y la ejecuta.
+ * La latencia se mide desde el instante programado y no desde que el hilo
+ * quedó libre: si el sistema se atrasa, la espera en cola cuenta, y no se
+ * cae en la omisión coordinada de los bancos de lazo cerrado. También se
+ * registra el tiempo de servicio (solo la ejecución) para comparar.
+ */
+public class GeneradorCarga {
+
+    private final GrafoCasanare grafo;
+    private final List<Consulta> consultas;
+    private final Dijkstra dijkstra;
+    private final ComponentesConexas componentes;
+    private final RecorridoBFS bfs;
+    private final LongAdder sumidero = new LongAdder();   // evita que el JIT descarte resultados
+
+    public GeneradorCarga(GrafoCasanare grafo, List<Consulta> consultas) {
+        if (consultas.isEmpty()) throw new IllegalArgumentException("El registro de consultas está vacío");
+        this.grafo = grafo;
+        this.consultas = consultas;
+        this.dijkstra = new Dijkstra(grafo);
+        this.componentes = new ComponentesConexas(grafo);
+        this.bfs = new RecorridoBFS(grafo);
+    }
+
+    // =============================================
+    //  RESULTADO DE UNA CORRIDA
+    // =============================================
+
+    public static class Reporte {
+        public final Histograma latencia = new Histograma();   // desde el instante programado
+        public final Histograma servicio = new Histograma();   // solo ejecución
+        // Las consultas que fallan solo cuentan en errores, no en los histogramas
+        public final Map<Consulta.Tipo, Histograma> porTipo = new EnumMap<>(Consulta.Tipo.class);
+        public final ResumenGC gc;
+        public double tasaObjetivo;
+        public int hilos;
+        public long errores;
+        long inicioMedicion;
+        long finMedicion;
+
+        Reporte(ResumenGC gc) {
+            this.gc = gc;
+            for (Consulta.Tipo t : Consulta.Tipo.values()) porTipo.put(t, new Histograma());
+        }
+
+        /** Consultas medidas por segundo efectivamente completadas. */
+        public double getRendimiento() {
+            double segundos = (finMedicion - inicioMedicion) / 1e9;
+            return segundos <= 0 ? 0 : latencia.getTotal() / segundos;
+        }
+
+        public void mostrar() {
+            System.out.println("\n======= PRUEBA DE CARGA =======");
+            System.out.printf("Tasa objetivo: %.0f consultas/s | Hilos: %d%n", tasaObjetivo, hilos);
+            System.out.printf("Completadas: %d | Rendimiento: %.1f consultas/s | Errores: %d%n",
+                    latencia.getTotal(), getRendimiento(), errores);
+            System.out.println("-".repeat(72));
+            System.out.printf("%-22s %10s %10s %10s %10s %10s%n", "Latencia (ms)", "media", "p50", "p99", "p99.9", "máx");
+            fila("Corregida (programada)", latencia);
+            fila("Servicio", servicio);
+            for (Map.Entry<Consulta.Tipo, Histograma> e : porTipo.entrySet()) {
+                if (e.getValue().getTotal() > 0) fila("  " + e.getKey(), e.getValue());
+            }
+            System.out.println("-".repeat(72));
+            gc.mostrar();
+            System.out.println("=".repeat(72) + "\n");
+        }
+
+        private static void fila(String nombre, Histograma h) {
+            System.out.printf("%-22s %10.3f %10.3f %10.3f %10.3f %10.3f%n", nombre,
+                    h.getMedia() / 1e6, h.percentil(0.50) / 1e6, h.percentil(0.99) / 1e6,
+                    h.percentil(0.999) / 1e6, h.getMaximo() / 1e6);
+        }
+    }
+
+    // =============================================
+    //  EJECUCIÓN
+    // =============================================
+
+    /**
+     * Emite total consultas (recorriendo el registro de forma cíclica) a la
+     * tasa dada. Las primeras "calentamiento" se ejecutan pero no se miden.
+     *
+     * @param tasa          consultas por segundo (lazo abierto)
+     * @param hilos         hilos que atienden las consultas
+     * @param total         consultas medidas
+     * @param calentamiento consultas previas sin medir (JIT, cachés)
+     */
+    public Reporte ejecutar(double tasa, int hilos, long total, long calentamiento) {
+        if (tasa <= 0 || hilos <= 0) throw new IllegalArgumentException("La tasa y los hilos deben ser positivos");
+        Reporte reporte = new Reporte(new ResumenGC());
+        reporte.tasaObjetivo = tasa;
+        reporte.hilos = hilos;
+
+        double periodo = 1e9 / tasa;
+        long emitir = calentamiento + total;
+        AtomicLong siguiente = new AtomicLong();
+        LongAdder errores = new LongAdder();
+        long inicio = System.nanoTime();
+        reporte.inicioMedicion = inicio + (long) (calentamiento * periodo);
+
+        Thread[] trabajadores = new Thread[hilos];
+        for (int h = 0; h < hilos; h++) {
+            trabajadores[h] = new Thread(() -> {
+                long i;
+                while ((i = siguiente.getAndIncrement()) < emitir) {
+                    long programado = inicio + (long) (i * periodo);
+                    long espera;
+                    while ((espera = programado - System.nanoTime()) > 0) LockSupport.parkNanos(espera);
+
+                    Consulta c = consultas.get((int) (i % consultas.size()));
+                    long comienzo = System.nanoTime();
+                    try {
+                        atender(c);
+                    } catch (RuntimeException e) {
+                        if (i >= calentamiento) errores.increment();
+                        continue;
+                    }
+                    long fin = System.nanoTime();
+                    if (i >= calentamiento) {
+                        reporte.latencia.registrar(fin - programado);
+                        reporte.servicio.registrar(fin - comienzo);
+                        reporte.porTipo.get(c.getTipo()).registrar(fin - programado);
+                    }
+                }
+            }, "carga-" + h);
+            trabajadores[h].start();
+        }
+        for (Thread t : trabajadores) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        reporte.finMedicion = System.nanoTime();
+        reporte.errores = errores.sum();
+        reporte.gc.terminar();
+        return reporte;
+    }
+
+    // Ejecuta la consulta con el mismo código que usa el menú, sin imprimir
+    private void atender(Consulta c) {
+        switch (c.getTipo()) {
+            case RUTA:
+                sumidero.add(dijkstra.ruta(c.getOrigen(), c.getDestino(), c.isPenalizar()).camino.size());
+                break;
+            case TODAS_LAS_RUTAS: {
+                ArbolCaminos arbol = dijkstra.calcularArbol(c.getOrigen(), c.isPenalizar());
+                for (long id : grafo.getIds()) sumidero.add(arbol.camino(id).length);
+                break;
+            }
+            case CONECTIVIDAD:
+                sumidero.add(componentes.calcular().getNumComponentes());
+                break;
+            case ARTICULACION:
+                sumidero.add(grafo.encontrarMunicipiosPuente().size());
+                break;
+            case RECORRIDO:
+                sumidero.add(bfs.recorrer(c.getOrigen()).orden.size());
+                break;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package co.edu.remington.grafos.carga;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias (en nanosegundos) con cubetas log-lineales: valores
+ * menores que 128 se cuentan exactos y los demás con 64 sub-cubetas por
+ * potencia de 2, es decir, con error relativo menor al 1,6 %. Admite registros
+ * concurrentes sin bloqueos y ocupa memoria fija sin importar cuántos
+ * valores reciba.
+ */
+public class Histograma {
+
+    private static final int EXACTOS = 128;
+    private static final int SUB = 64;
+    private static final int NUM_CUBETAS = EXACTOS + 56 * SUB;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(NUM_CUBETAS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong suma = new AtomicLong();
+    private final AtomicLong maximo = new AtomicLong();
+
+    public void registrar(long valor) {
+        if (valor < 0) valor = 0;
+        cubetas.incrementAndGet(cubeta(valor));
+        total.incrementAndGet();
+        suma.addAndGet(valor);
+        maximo.accumulateAndGet(valor, Math::max);
+    }
+
+    private static int cubeta(long v) {
+        if (v < EXACTOS) return (int) v;
+        int desplazamiento = 63 - Long.numberOfLeadingZeros(v) - 6;   // v >> desp queda en [64, 127]
+        return EXACTOS + (desplazamiento - 1) * SUB + (int) ((v >> desplazamiento) - SUB);
+    }
+
+    // Mayor valor que cae en la cubeta (cota superior de lo registrado en ella)
+    private static long limiteSuperior(int c) {
+        if (c < EXACTOS) return c;
+        int desplazamiento = (c - EXACTOS) / SUB + 1;
+        long base = (c - EXACTOS) % SUB + SUB;
+        return ((base + 1) << desplazamiento) - 1;
+    }
+
+    // =============================================
+    //  CONSULTAS
+    // =============================================
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getMedia() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) suma.get() / n;
+    }
+
+    /**
+     * Valor por debajo del cual queda la fracción p de los registros
+     * (p en [0, 1]; por ejemplo 0.999 para p99.9).
+     */
+    public long percentil(double p) {
+        long n = total.get();
+        if (n == 0) return 0;
+        long objetivo = Math.max(1, (long) Math.ceil(p * n));
+        long acumulado = 0;
+        for (int c = 0; c < NUM_CUBETAS; c++) {
+            acumulado += cubetas.get(c);
+            if (acumulado >= objetivo) return Math.min(limiteSuperior(c), maximo.get());
+        }
+        return maximo.get();
+    }
+}
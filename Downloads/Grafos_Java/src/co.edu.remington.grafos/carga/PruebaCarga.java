@@ -0,0 +1,62 @@
+package co.edu.remington.grafos.carga;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.RegistroCambios;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Punto de entrada de la prueba de carga.
+ *
+ *   java co.edu.remington.grafos.carga.PruebaCarga [opciones]
+ *
+ *   --consultas=<archivo>   registro de consultas a reproducir (por defecto, sintético)
+ *   --sintetico=<n>         tamaño del registro sintético (1000)
+ *   --mezcla=a,b,c,d,e      pesos de RUTA, TODAS_LAS_RUTAS, CONECTIVIDAD, ARTICULACION, RECORRIDO (80,10,5,5,5)
+ *   --grabar=<archivo>      guarda el registro usado, para repetir la corrida
+ *   --tasa=<n>              consultas por segundo (1000)
+ *   --hilos=<n>             hilos de atención (núcleos disponibles)
+ *   --total=<n>             consultas medidas (20000)
+ *   --calentamiento=<n>     consultas previas sin medir (2000)
+ *   --registro=<dir>        carga el grafo desde un registro de cambios (ver RegistroCambios)
+ */
+public class PruebaCarga {
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> op = new HashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (arg.startsWith("--") && igual > 0) op.put(arg.substring(2, igual), arg.substring(igual + 1));
+        }
+
+        GrafoCasanare grafo = new GrafoCasanare();
+        if (op.containsKey("registro")) {
+            RegistroCambios.abrir(grafo, Path.of(op.get("registro")), grafo::inicializarDatosCasanare).close();
+        } else {
+            grafo.inicializarDatosCasanare();
+        }
+
+        List<Consulta> consultas;
+        if (op.containsKey("consultas")) {
+            consultas = RegistroConsultas.leer(Path.of(op.get("consultas")));
+        } else {
+            int[] pesos = Arrays.stream(op.getOrDefault("mezcla", "80,10,5,5,5").split(","))
+                    .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+            consultas = RegistroConsultas.sintetico(grafo,
+                    Integer.parseInt(op.getOrDefault("sintetico", "1000")), pesos, 42);
+        }
+        if (op.containsKey("grabar")) RegistroConsultas.escribir(Path.of(op.get("grabar")), consultas);
+
+        double tasa = Double.parseDouble(op.getOrDefault("tasa", "1000"));
+        int hilos = Integer.parseInt(op.getOrDefault("hilos",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long total = Long.parseLong(op.getOrDefault("total", "20000"));
+        long calentamiento = Long.parseLong(op.getOrDefault("calentamiento", "2000"));
+
+        System.out.printf("Grafo: %d municipios, %d vías | Registro: %d consultas%n",
+                grafo.getNumNodos(), grafo.getNumVias(), consultas.size());
+        new GeneradorCarga(grafo, consultas).ejecutar(tasa, hilos, total, calentamiento).mostrar();
+    }
+}
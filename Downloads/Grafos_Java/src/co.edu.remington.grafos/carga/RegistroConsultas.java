@@ -0,0 +1,80 @@
+package co.edu.remington.grafos.carga;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Lectura, escritura y generación de registros de consultas para el
+ * generador de carga. Las líneas vacías y las que empiezan con # se ignoran.
+ */
+public class RegistroConsultas {
+
+    private RegistroConsultas() {
+    }
+
+    public static List<Consulta> leer(Path archivo) throws IOException {
+        List<Consulta> consultas = new ArrayList<>();
+        for (String linea : Files.readAllLines(archivo, StandardCharsets.UTF_8)) {
+            String l = linea.trim();
+            if (l.isEmpty() || l.startsWith("#")) continue;
+            consultas.add(Consulta.desdeLinea(l));
+        }
+        return consultas;
+    }
+
+    public static void escribir(Path archivo, List<Consulta> consultas) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            for (Consulta c : consultas) {
+                w.write(c.toString());
+                w.newLine();
+            }
+        }
+    }
+
+    /**
+     * Genera un registro sintético con orígenes y destinos uniformes sobre
+     * los municipios del grafo.
+     *
+     * @param pesos peso relativo de cada tipo, en el orden de Consulta.Tipo
+     *              (por ejemplo {80, 10, 5, 5, 5})
+     */
+    public static List<Consulta> sintetico(GrafoCasanare grafo, int cantidad, int[] pesos, long semilla) {
+        Consulta.Tipo[] tipos = Consulta.Tipo.values();
+        if (pesos.length != tipos.length) {
+            throw new IllegalArgumentException("Se esperan " + tipos.length + " pesos");
+        }
+        int total = 0;
+        for (int p : pesos) total += p;
+
+        List<Long> ids = grafo.getIds();
+        Random rnd = new Random(semilla);
+        List<Consulta> consultas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            int r = rnd.nextInt(total), t = 0;
+            while (r >= pesos[t]) r -= pesos[t++];
+            long origen = ids.get(rnd.nextInt(ids.size()));
+            long destino = ids.get(rnd.nextInt(ids.size()));
+            boolean penalizar = rnd.nextBoolean();
+            switch (tipos[t]) {
+                case RUTA:
+                    consultas.add(new Consulta(tipos[t], origen, destino, penalizar));
+                    break;
+                case TODAS_LAS_RUTAS:
+                    consultas.add(new Consulta(tipos[t], origen, -1, penalizar));
+                    break;
+                case RECORRIDO:
+                    consultas.add(new Consulta(tipos[t], origen, -1, false));
+                    break;
+                default:
+                    consultas.add(new Consulta(tipos[t], -1, -1, false));
+            }
+        }
+        return consultas;
+    }
+}
@@ -0,0 +1,91 @@
+package co.edu.remington.grafos.carga;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Resumen de la recolección de basura durante una corrida: número de
+ * colecciones y tiempo de GC acumulado por recolector (de los MXBeans; en
+ * recolectores concurrentes incluye trabajo que no detiene la aplicación) y,
+ * cuando la JVM publica notificaciones de GC, la distribución de pausas
+ * individuales. Solo cuentan como pausa las notificaciones de colecciones que
+ * detienen la aplicación; los ciclos concurrentes se ignoran.
+ */
+public class ResumenGC implements NotificationListener {
+
+    private final List<GarbageCollectorMXBean> recolectores = ManagementFactory.getGarbageCollectorMXBeans();
+    private final long[] conteoInicial;
+    private final long[] tiempoInicial;
+    private long[] conteoFinal;
+    private long[] tiempoFinal;
+    private final Histograma pausas = new Histograma();   // en nanosegundos
+
+    // Acciones de GarbageCollectionNotificationInfo que corresponden a pausas
+    private static final Set<String> ACCIONES_PAUSA = Set.of(
+            "end of minor GC", "end of major GC", "end of GC pause");
+
+    /** Toma la línea base y empieza a escuchar pausas. */
+    public ResumenGC() {
+        int r = recolectores.size();
+        conteoInicial = new long[r];
+        tiempoInicial = new long[r];
+        for (int i = 0; i < r; i++) {
+            conteoInicial[i] = recolectores.get(i).getCollectionCount();
+            tiempoInicial[i] = recolectores.get(i).getCollectionTime();
+            if (recolectores.get(i) instanceof NotificationEmitter) {
+                ((NotificationEmitter) recolectores.get(i)).addNotificationListener(this, null, null);
+            }
+        }
+    }
+
+    @Override
+    public void handleNotification(Notification n, Object contexto) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(n.getType())) return;
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) n.getUserData());
+        if (!ACCIONES_PAUSA.contains(info.getGcAction())) return;
+        pausas.registrar(info.getGcInfo().getDuration() * 1_000_000L);
+    }
+
+    /** Fija los valores finales y deja de escuchar. */
+    public void terminar() {
+        int r = recolectores.size();
+        conteoFinal = new long[r];
+        tiempoFinal = new long[r];
+        for (int i = 0; i < r; i++) {
+            conteoFinal[i] = recolectores.get(i).getCollectionCount();
+            tiempoFinal[i] = recolectores.get(i).getCollectionTime();
+            if (recolectores.get(i) instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) recolectores.get(i)).removeNotificationListener(this);
+                } catch (Exception e) {
+                    // ya no estaba registrado
+                }
+            }
+        }
+    }
+
+    public void mostrar() {
+        System.out.println("Recolección de basura (tiempo de GC por recolector):");
+        long totalMs = 0;
+        for (int i = 0; i < recolectores.size(); i++) {
+            long conteo = conteoFinal[i] - conteoInicial[i];
+            long ms = tiempoFinal[i] - tiempoInicial[i];
+            totalMs += ms;
+            System.out.printf("  %-28s %6d colecciones %8d ms%n", recolectores.get(i).getName(), conteo, ms);
+        }
+        System.out.printf("  %-28s %6s              %8d ms%n", "Total", "", totalMs);
+        if (pausas.getTotal() > 0) {
+            System.out.printf("  Pausas: %d | p50 %.1f ms | p99 %.1f ms | máx %.1f ms%n",
+                    pausas.getTotal(), pausas.percentil(0.50) / 1e6,
+                    pausas.percentil(0.99) / 1e6, pausas.getMaximo() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,539 @@
+package co.edu.remington.grafos.distribuido;
+
+import co.edu.remington.grafos.algoritmos.Dijkstra;
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.Via;
+import co.edu.remington.grafos.utilidades.MapaLongInt;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Ruteo particionado en varios procesos. El grafo se reparte en regiones
+ * (ver Particionador); cada región la atiende un proceso TrabajadorRegion que
+ * solo conoce su subgrafo. El coordinador arma un grafo superpuesto cuyos
+ * nodos son los municipios de frontera y cuyas aristas son:
+ *
+ *   - atajos dentro de cada región entre sus municipios de frontera
+ *     (distancias que precalcula el trabajador), y
+ *   - las vías cortadas del grafo original, que unen regiones.
+ *
+ * Una consulta pide al trabajador del origen las distancias hasta su
+ * frontera y al del destino las suyas, corre Dijkstra sobre el grafo
+ * superpuesto y expande los atajos usados con búsquedas locales. Si origen y
+ * destino están en la misma región, la ruta local directa también compite.
+ *
+ * Arranca desde los archivos de región que deja el paso de partición
+ * (Particionador.escribirRegiones), que además guardan las vías cortadas: ni
+ * el coordinador ni los trabajadores cargan nunca el grafo completo. El
+ * coordinador guarda solo la región de cada municipio y el grafo superpuesto.
+ * Es una foto de la red al momento de particionar: los cambios posteriores en
+ * las vías no se reflejan hasta particionar de nuevo.
+ */
+public class Coordinador implements AutoCloseable {
+
+    private static final long ESPERA_CIERRE_MS = 5000;
+    private static final long ESPERA_ARRANQUE_MS = 30000;
+
+    private final MapaLongInt regionPorId = new MapaLongInt();  // ID externo -> región
+    private final Path directorio;
+    private final boolean temporal;         // directorio propio: se borra al cerrar
+    private final Trabajador[] trabajadores;
+
+    // Grafo superpuesto: nodo = municipio de frontera
+    private final Map<Long, Integer> nodoPorId = new HashMap<>();
+    private final List<Long> idPorNodo = new ArrayList<>();
+    private final List<List<Arista>> aristas = new ArrayList<>();
+
+    /**
+     * Arista del grafo superpuesto. region = -1 para una vía cortada; si no,
+     * es un atajo que se expande con una búsqueda local en esa región.
+     */
+    private static class Arista {
+        final int destino;
+        final double real;
+        final double penalizada;
+        final int region;
+
+        Arista(int destino, double real, double penalizada, int region) {
+            this.destino = destino;
+            this.real = real;
+            this.penalizada = penalizada;
+            this.region = region;
+        }
+    }
+
+    /**
+     * Resultado de una consulta: distancia (Double.MAX_VALUE si no hay ruta),
+     * camino como IDs externos y número de peticiones a los trabajadores.
+     */
+    public static class Ruta {
+        public final double distancia;
+        public final List<Long> camino;
+        public final int peticiones;
+
+        Ruta(double distancia, List<Long> camino, int peticiones) {
+            this.distancia = distancia;
+            this.camino = camino;
+            this.peticiones = peticiones;
+        }
+    }
+
+    /**
+     * Lanza un proceso trabajador por cada archivo de región del directorio
+     * (region-0.bin, region-1.bin, ...) y arma el grafo superpuesto. De cada
+     * región lee solo municipios, frontera y vías cortadas.
+     */
+    public Coordinador(Path directorio) throws IOException {
+        this(directorio, false);
+    }
+
+    /**
+     * Atajo para pruebas y redes pequeñas: escribe las regiones en un
+     * directorio temporal (que se borra al cerrar) y arranca desde ahí.
+     *
+     * @param particion region[i] por índice compacto (ver Particionador)
+     */
+    public Coordinador(GrafoCasanare grafo, int[] particion) throws IOException {
+        this(regionesTemporales(grafo, particion), true);
+    }
+
+    private Coordinador(Path directorio, boolean temporal) throws IOException {
+        this.directorio = directorio;
+        this.temporal = temporal;
+        int k = 0;
+        while (Files.exists(Region.archivo(directorio, k))) k++;
+        this.trabajadores = new Trabajador[k];
+        try {
+            if (k == 0) throw new IOException("No hay archivos de región en " + directorio);
+            for (int r = 0; r < k; r++) {
+                Path archivo = Region.archivo(directorio, r);
+                Region region = Region.leerCortes(archivo);
+                if (region.numero != r) throw new IOException("El archivo " + archivo + " es de la región " + region.numero);
+                for (long id : region.ids) {
+                    if (regionPorId.put(id, r) != MapaLongInt.AUSENTE) {
+                        throw new IOException("Municipio " + id + " en más de una región");
+                    }
+                }
+                agregarCortes(region);
+                trabajadores[r] = Trabajador.lanzar(archivo);
+            }
+            agregarAtajos();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private static Path regionesTemporales(GrafoCasanare grafo, int[] particion) throws IOException {
+        Path directorio = Files.createTempDirectory("regiones");
+        try {
+            Particionador.escribirRegiones(grafo, particion, directorio);
+            return directorio;
+        } catch (IOException | RuntimeException e) {
+            borrarRegiones(directorio, particion.length + 1);
+            throw e;
+        }
+    }
+
+    public int getNumRegiones() {
+        return trabajadores.length;
+    }
+
+    public int getNumFrontera() {
+        return idPorNodo.size();
+    }
+
+    // =============================================
+    //  GRAFO SUPERPUESTO
+    // =============================================
+
+    private int nodo(long id) {
+        Integer existente = nodoPorId.get(id);
+        if (existente != null) return existente;
+        int nuevo = idPorNodo.size();
+        nodoPorId.put(id, nuevo);
+        idPorNodo.add(id);
+        aristas.add(new ArrayList<>());
+        return nuevo;
+    }
+
+    /** Vías cortadas que salen de la región (sus dos extremos son de frontera). */
+    private void agregarCortes(Region region) {
+        Region.Vias cortes = region.cortes;
+        for (int e = 0; e < cortes.size(); e++) {
+            double real = cortes.distancia[e];
+            aristas.get(nodo(cortes.origen[e])).add(new Arista(nodo(cortes.destino[e]),
+                    real, real * Via.factorPenalizacion(cortes.estado[e]), -1));
+        }
+    }
+
+    /** Atajos internos que reporta cada trabajador entre sus municipios de frontera. */
+    private void agregarAtajos() {
+        for (int r = 0; r < trabajadores.length; r++) {
+            Trabajador t = trabajadores[r];
+            int nf = t.frontera.length;
+            for (int i = 0; i < nf; i++) {
+                int a = nodo(t.frontera[i]);
+                for (int j = 0; j < nf; j++) {
+                    double real = t.atajos[0][i * nf + j], pen = t.atajos[1][i * nf + j];
+                    if (i == j || real == Double.MAX_VALUE) continue;
+                    aristas.get(a).add(new Arista(nodo(t.frontera[j]), real, pen, r));
+                }
+            }
+        }
+    }
+
+    // =============================================
+    //  CONSULTA
+    // =============================================
+
+    /**
+     * Ruta mínima entre dos municipios (IDs externos). Puede llamarse desde
+     * varios hilos; las peticiones a un mismo trabajador se serializan.
+     */
+    public Ruta ruta(long origen, long destino, boolean penalizar) throws IOException {
+        int ro = region(origen), rd = region(destino);
+        Trabajador to = trabajadores[ro], td = trabajadores[rd];
+        int peticiones = 2;
+        double[] desdeOrigen = to.desde(origen, penalizar);
+        double[] hastaDestino = td.desde(destino, penalizar);
+
+        double mejor = Double.MAX_VALUE;
+        List<Long> caminoLocal = null;
+        if (ro == rd) {
+            peticiones++;
+            Trabajador.Local local = to.rutaLocal(origen, destino, penalizar);
+            if (local.distancia != Double.MAX_VALUE) {
+                mejor = local.distancia;
+                caminoLocal = local.camino;
+            }
+        }
+
+        // Distancia de salida de cada nodo superpuesto hacia el destino
+        int m = idPorNodo.size();
+        double[] salida = new double[m];
+        Arrays.fill(salida, Double.MAX_VALUE);
+        for (int j = 0; j < td.frontera.length; j++) salida[nodoPorId.get(td.frontera[j])] = hastaDestino[j];
+
+        // Dijkstra sobre el grafo superpuesto desde un origen virtual
+        double[] dist = new double[m];
+        int[] anterior = new int[m];
+        int[] regionArista = new int[m];
+        Arrays.fill(dist, Double.MAX_VALUE);
+        Arrays.fill(anterior, -1);
+        PriorityQueue<double[]> pq = new PriorityQueue<>(Comparator.comparingDouble(a -> a[1]));
+        for (int i = 0; i < to.frontera.length; i++) {
+            if (desdeOrigen[i] == Double.MAX_VALUE) continue;
+            int f = nodoPorId.get(to.frontera[i]);
+            dist[f] = desdeOrigen[i];
+            regionArista[f] = ro;
+            pq.offer(new double[]{f, dist[f]});
+        }
+        int ultimo = -1;
+        while (!pq.isEmpty()) {
+            double[] actual = pq.poll();
+            int u = (int) actual[0];
+            double dU = actual[1];
+            if (dU > dist[u]) continue;
+            if (dU >= mejor) break;
+            if (salida[u] != Double.MAX_VALUE && dU + salida[u] < mejor) {
+                mejor = dU + salida[u];
+                ultimo = u;
+            }
+            for (Arista a : aristas.get(u)) {
+                double nuevaDist = dU + (penalizar ? a.penalizada : a.real);
+                if (nuevaDist < dist[a.destino]) {
+                    dist[a.destino] = nuevaDist;
+                    anterior[a.destino] = u;
+                    regionArista[a.destino] = a.region;
+                    pq.offer(new double[]{a.destino, nuevaDist});
+                }
+            }
+        }
+
+        if (mejor == Double.MAX_VALUE) return new Ruta(Double.MAX_VALUE, new ArrayList<>(), peticiones);
+        if (ultimo == -1) return new Ruta(mejor, caminoLocal, peticiones);
+
+        // Expansión: origen -> frontera -> ... -> frontera -> destino
+        List<Integer> nodos = new ArrayList<>();
+        for (int v = ultimo; v != -1; v = anterior[v]) nodos.add(v);
+        Collections.reverse(nodos);
+
+        List<Long> camino = new ArrayList<>();
+        camino.add(origen);
+        long previo = origen;
+        for (int v : nodos) {
+            long id = idPorNodo.get(v);
+            int r = regionArista[v];
+            if (r == -1) {
+                camino.add(id);
+            } else if (id != previo) {
+                peticiones++;
+                List<Long> tramo = trabajadores[r].rutaLocal(previo, id, penalizar).camino;
+                camino.addAll(tramo.subList(1, tramo.size()));
+            }
+            previo = id;
+        }
+        if (previo != destino) {
+            peticiones++;
+            List<Long> tramo = td.rutaLocal(previo, destino, penalizar).camino;
+            camino.addAll(tramo.subList(1, tramo.size()));
+        }
+        return new Ruta(mejor, camino, peticiones);
+    }
+
+    private int region(long id) {
+        int r = regionPorId.get(id);
+        if (r == MapaLongInt.AUSENTE) throw new IllegalArgumentException("Municipio desconocido: " + id);
+        return r;
+    }
+
+    // =============================================
+    //  PROCESOS TRABAJADORES
+    // =============================================
+
+    /**
+     * Proceso trabajador y su conexión. Las peticiones se serializan con el
+     * monitor del objeto porque comparten un mismo socket. Si una respuesta
+     * se corta a medias el flujo queda desalineado, así que el trabajador se
+     * marca como caído y las peticiones siguientes fallan de inmediato.
+     */
+    private static class Trabajador implements Closeable {
+        final Process proceso;
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+        long[] frontera;
+        double[][] atajos;
+        private boolean caido;
+
+        static class Local {
+            final double distancia;
+            final List<Long> camino;
+
+            Local(double distancia, List<Long> camino) {
+                this.distancia = distancia;
+                this.camino = camino;
+            }
+        }
+
+        private Trabajador(Process proceso, Socket socket) throws IOException {
+            this.proceso = proceso;
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        /** Arranca la JVM del trabajador con el mismo classpath y se conecta a su puerto. */
+        static Trabajador lanzar(Path archivo) throws IOException {
+            String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            Process proceso = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    TrabajadorRegion.class.getName(), archivo.toString())
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            try {
+                String linea = leerAnuncio(proceso, archivo);
+                if (linea == null || !linea.startsWith(Protocolo.ANUNCIO_PUERTO)) {
+                    throw new IOException("El trabajador de " + archivo.getFileName() + " no anunció su puerto");
+                }
+                int puerto = Integer.parseInt(linea.substring(Protocolo.ANUNCIO_PUERTO.length()).trim());
+                Socket socket = new Socket(InetAddress.getLoopbackAddress(), puerto);
+                socket.setTcpNoDelay(true);
+                Trabajador t = new Trabajador(proceso, socket);
+                t.leerFrontera();
+                return t;
+            } catch (IOException | RuntimeException e) {
+                proceso.destroyForcibly();
+                throw e;
+            }
+        }
+
+        /**
+         * Lee la primera línea del trabajador sin bloquear más de
+         * ESPERA_ARRANQUE_MS: un proceso que se cuelga al arrancar no debe
+         * dejar colgado al coordinador.
+         */
+        private static String leerAnuncio(Process proceso, Path archivo) throws IOException {
+            BufferedReader salida = new BufferedReader(
+                    new InputStreamReader(proceso.getInputStream(), StandardCharsets.UTF_8));
+            FutureTask<String> lectura = new FutureTask<>(salida::readLine);
+            Thread hilo = new Thread(lectura, "arranque-" + archivo.getFileName());
+            hilo.setDaemon(true);
+            hilo.start();
+            try {
+                return lectura.get(ESPERA_ARRANQUE_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new IOException("El trabajador de " + archivo.getFileName()
+                        + " no arrancó en " + ESPERA_ARRANQUE_MS + " ms");
+            } catch (ExecutionException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof IOException io) throw io;
+                throw new IOException(causa);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrumpido esperando al trabajador de " + archivo.getFileName());
+            }
+        }
+
+        private synchronized void leerFrontera() throws IOException {
+            out.writeByte(Protocolo.FRONTERA);
+            out.flush();
+            int nf = in.readInt();
+            frontera = new long[nf];
+            for (int i = 0; i < nf; i++) frontera[i] = in.readLong();
+            atajos = new double[2][nf * nf];
+            for (double[] m : atajos) {
+                for (int i = 0; i < m.length; i++) m[i] = in.readDouble();
+            }
+        }
+
+        synchronized double[] desde(long origen, boolean penalizar) throws IOException {
+            verificarVivo();
+            try {
+                out.writeByte(Protocolo.DESDE);
+                out.writeLong(origen);
+                out.writeBoolean(penalizar);
+                out.flush();
+                double[] dist = new double[frontera.length];
+                for (int i = 0; i < dist.length; i++) dist[i] = in.readDouble();
+                return dist;
+            } catch (IOException e) {
+                marcarCaido();
+                throw e;
+            }
+        }
+
+        synchronized Local rutaLocal(long origen, long destino, boolean penalizar) throws IOException {
+            verificarVivo();
+            try {
+                out.writeByte(Protocolo.RUTA_LOCAL);
+                out.writeLong(origen);
+                out.writeLong(destino);
+                out.writeBoolean(penalizar);
+                out.flush();
+                double distancia = in.readDouble();
+                int longitud = in.readInt();
+                List<Long> camino = new ArrayList<>(longitud);
+                for (int i = 0; i < longitud; i++) camino.add(in.readLong());
+                return new Local(distancia, camino);
+            } catch (IOException e) {
+                marcarCaido();
+                throw e;
+            }
+        }
+
+        private void verificarVivo() throws IOException {
+            if (caido) throw new IOException("El trabajador no responde; cree un coordinador nuevo");
+        }
+
+        private void marcarCaido() {
+            caido = true;
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ya estaba cerrado
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!caido) {
+                try {
+                    out.writeByte(Protocolo.CERRAR);
+                    out.flush();
+                } catch (IOException e) {
+                    // el proceso ya no escucha; se fuerza abajo
+                }
+            }
+            try {
+                socket.close();
+                proceso.getOutputStream().close();
+                if (!proceso.waitFor(ESPERA_CIERRE_MS, TimeUnit.MILLISECONDS)) proceso.destroyForcibly();
+            } catch (IOException e) {
+                proceso.destroyForcibly();
+            } catch (InterruptedException e) {
+                proceso.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** Detiene los trabajadores; si las regiones eran temporales, las borra. */
+    @Override
+    public void close() {
+        for (Trabajador t : trabajadores) {
+            if (t != null) t.close();
+        }
+        if (temporal) borrarRegiones(directorio, trabajadores.length);
+    }
+
+    private static void borrarRegiones(Path directorio, int k) {
+        try {
+            for (int r = 0; r < k; r++) Files.deleteIfExists(Region.archivo(directorio, r));
+            Files.deleteIfExists(directorio);
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar " + directorio + ": " + e.getMessage());
+        }
+    }
+
+    // =============================================
+    //  DEMOSTRACIÓN
+    // =============================================
+
+    /**
+     * Particiona la red de Casanare, levanta un trabajador por región y
+     * compara las rutas distribuidas con Dijkstra sobre el grafo completo.
+     *
+     *   java co.edu.remington.grafos.distribuido.Coordinador [regiones]
+     */
+    public static void main(String[] args) throws IOException {
+        int k = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        GrafoCasanare grafo = new GrafoCasanare();
+        grafo.inicializarDatosCasanare();
+        int[] particion = Particionador.balanceado(grafo, k);
+        Dijkstra dijkstra = new Dijkstra(grafo);
+
+        try (Coordinador coordinador = new Coordinador(grafo, particion)) {
+            System.out.println("\n======= RUTEO PARTICIONADO =======");
+            System.out.printf("Regiones: %d | Municipios de frontera: %d | Vías cortadas: %d%n",
+                    coordinador.getNumRegiones(), coordinador.getNumFrontera(),
+                    Particionador.viasCortadas(grafo, particion));
+            for (int r = 0; r < coordinador.getNumRegiones(); r++) {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < particion.length; i++) {
+                    if (particion[i] != r) continue;
+                    if (sb.length() > 0) sb.append(", ");
+                    sb.append(grafo.getNombre(grafo.getIdExterno(i)));
+                }
+                System.out.printf("  Región %d: %s%n", r, sb);
+            }
+            System.out.println("-".repeat(80));
+
+            List<Long> ids = grafo.getIds();
+            int diferencias = 0;
+            for (boolean penalizar : new boolean[]{false, true}) {
+                for (long a : ids) {
+                    for (long b : ids) {
+                        Ruta ruta = coordinador.ruta(a, b, penalizar);
+                        if (Math.abs(ruta.distancia - dijkstra.distancia(a, b, penalizar)) > 1e-6) diferencias++;
+                    }
+                }
+            }
+            long a = ids.get(0), b = ids.get(ids.size() - 1);
+            Ruta ruta = coordinador.ruta(a, b, false);
+            System.out.printf("Ruta %s -> %s: %.2f km (%d peticiones)%n",
+                    grafo.getNombre(a), grafo.getNombre(b), ruta.distancia, ruta.peticiones);
+            System.out.println("  Camino: " + dijkstra.formatearCamino(ruta.camino));
+            System.out.printf("Pares comparados con Dijkstra: %d | Diferencias: %d%n",
+                    2 * ids.size() * ids.size(), diferencias);
+            System.out.println("=".repeat(80) + "\n");
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package co.edu.remington.grafos.distribuido;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.Via;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Reparte los municipios de un GrafoCasanare en regiones para el ruteo
+ * distribuido. Cada método retorna region[i] (0..k-1) por índice compacto.
+ *
+ * El corte balanceado sigue la idea de los particionadores tipo METIS sin la
+ * fase multinivel: crecimiento simultáneo por BFS desde semillas alejadas
+ * entre sí, con tope de tamaño por región, y luego pasadas de refinamiento
+ * que mueven municipios de frontera si reducen las vías cortadas sin romper
+ * el balance.
+ *
+ * Es el único paso que necesita el grafo completo. Se corre aparte, una vez,
+ * y deja un archivo por región (escribirRegiones) con el que luego arrancan
+ * el Coordinador y sus trabajadores:
+ *
+ *   java co.edu.remington.grafos.distribuido.Particionador <directorio> [regiones]
+ */
+public class Particionador {
+
+    /** Desbalance permitido durante el refinamiento (fracción del tamaño ideal). */
+    private static final double TOLERANCIA = 0.10;
+    private static final int PASADAS_REFINAMIENTO = 8;
+
+    private Particionador() {
+    }
+
+    // =============================================
+    //  PARTICIÓN EXPLÍCITA (POR DEPARTAMENTO, ETC.)
+    // =============================================
+
+    /**
+     * Usa una asignación dada, por ejemplo el departamento de cada municipio.
+     * Los valores se renumeran a 0..k-1 en orden de aparición.
+     *
+     * @param regionPorId ID externo -> etiqueta de región (todo municipio debe tenerla)
+     */
+    public static int[] porAtributo(GrafoCasanare grafo, Map<Long, Integer> regionPorId) {
+        int n = grafo.getNumNodos();
+        int[] region = new int[n];
+        Map<Integer, Integer> numero = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Integer etiqueta = regionPorId.get(grafo.getIdExterno(i));
+            if (etiqueta == null) {
+                throw new IllegalArgumentException("Municipio sin región: " + grafo.getIdExterno(i));
+            }
+            region[i] = numero.computeIfAbsent(etiqueta, e -> numero.size());
+        }
+        return region;
+    }
+
+    // =============================================
+    //  CORTE BALANCEADO
+    // =============================================
+
+    /**
+     * Particiona en k regiones de tamaño similar tratando de cortar pocas vías.
+     */
+    public static int[] balanceado(GrafoCasanare grafo, int k) {
+        int n = grafo.getNumNodos();
+        if (n == 0) return new int[0];
+        k = Math.max(1, Math.min(k, n));
+        int[] region = new int[n];
+        Arrays.fill(region, -1);
+        int[] tamanio = new int[k];
+        int ideal = (n + k - 1) / k;
+
+        // Crecimiento simultáneo: en cada ronda cada región reclama un municipio de su frente
+        int[] semillas = semillasAlejadas(grafo, k);
+        List<ArrayDeque<Integer>> frentes = new ArrayList<>();
+        for (int r = 0; r < k; r++) {
+            ArrayDeque<Integer> frente = new ArrayDeque<>();
+            region[semillas[r]] = r;
+            tamanio[r] = 1;
+            frente.add(semillas[r]);
+            frentes.add(frente);
+        }
+        boolean avance = true;
+        while (avance) {
+            avance = false;
+            for (int r = 0; r < k; r++) {
+                ArrayDeque<Integer> frente = frentes.get(r);
+                if (tamanio[r] >= ideal) continue;
+                while (!frente.isEmpty()) {
+                    int u = frente.peek();
+                    int libre = -1;
+                    for (Via v : grafo.getVecinos(u)) {
+                        if (v.estaActiva() && region[v.getIndiceDestino()] == -1) {
+                            libre = v.getIndiceDestino();
+                            break;
+                        }
+                    }
+                    if (libre == -1) {
+                        frente.poll();
+                        continue;
+                    }
+                    region[libre] = r;
+                    tamanio[r]++;
+                    frente.add(libre);
+                    avance = true;
+                    break;
+                }
+            }
+        }
+
+        // Sobrantes (islas o regiones que llegaron al tope): a la región más pequeña
+        for (int i = 0; i < n; i++) {
+            if (region[i] != -1) continue;
+            int menor = 0;
+            for (int r = 1; r < k; r++) if (tamanio[r] < tamanio[menor]) menor = r;
+            region[i] = menor;
+            tamanio[menor]++;
+        }
+
+        refinar(grafo, region, tamanio, ideal);
+        return region;
+    }
+
+    /**
+     * Semillas separadas por saltos: cada una maximiza la distancia BFS
+     * mínima a las anteriores (los nodos de otras componentes cuentan como infinitos).
+     */
+    private static int[] semillasAlejadas(GrafoCasanare grafo, int k) {
+        int n = grafo.getNumNodos();
+        int[] minSaltos = new int[n];
+        Arrays.fill(minSaltos, Integer.MAX_VALUE);
+        int[] semillas = new int[k];
+        int[] niveles = saltos(grafo, 0);
+        int actual = 0;
+        for (int i = 0; i < n; i++) if (niveles[i] != Integer.MAX_VALUE && niveles[i] > niveles[actual]) actual = i;
+
+        for (int s = 0; s < k; s++) {
+            semillas[s] = actual;
+            niveles = saltos(grafo, actual);
+            for (int i = 0; i < n; i++) minSaltos[i] = Math.min(minSaltos[i], niveles[i]);
+            minSaltos[actual] = -1;
+            int siguiente = -1;
+            for (int i = 0; i < n; i++) {
+                if (minSaltos[i] >= 0 && (siguiente == -1 || minSaltos[i] > minSaltos[siguiente])) siguiente = i;
+            }
+            actual = siguiente;
+        }
+        return semillas;
+    }
+
+    private static int[] saltos(GrafoCasanare grafo, int origen) {
+        int n = grafo.getNumNodos();
+        int[] nivel = new int[n];
+        Arrays.fill(nivel, Integer.MAX_VALUE);
+        int[] cola = new int[n];
+        int cabeza = 0, fin = 0;
+        nivel[origen] = 0;
+        cola[fin++] = origen;
+        while (cabeza < fin) {
+            int u = cola[cabeza++];
+            for (Via v : grafo.getVecinos(u)) {
+                int w = v.getIndiceDestino();
+                if (v.estaActiva() && nivel[w] == Integer.MAX_VALUE) {
+                    nivel[w] = nivel[u] + 1;
+                    cola[fin++] = w;
+                }
+            }
+        }
+        return nivel;
+    }
+
+    /**
+     * Pasadas tipo Fiduccia–Mattheyses simplificadas: un municipio de frontera
+     * se mueve a la región vecina con la que comparte más vías si eso reduce
+     * el corte y ambas regiones siguen dentro de la tolerancia.
+     */
+    private static void refinar(GrafoCasanare grafo, int[] region, int[] tamanio, int ideal) {
+        int n = grafo.getNumNodos();
+        int k = tamanio.length;
+        int minimo = (int) Math.floor(ideal * (1 - TOLERANCIA));
+        int maximo = (int) Math.ceil(ideal * (1 + TOLERANCIA));
+        int[] vias = new int[k];
+
+        for (int pasada = 0; pasada < PASADAS_REFINAMIENTO; pasada++) {
+            boolean mejoro = false;
+            for (int u = 0; u < n; u++) {
+                Arrays.fill(vias, 0);
+                for (Via v : grafo.getVecinos(u)) {
+                    if (v.estaActiva()) vias[region[v.getIndiceDestino()]]++;
+                }
+                int propia = region[u], mejor = propia;
+                for (int r = 0; r < k; r++) {
+                    if (vias[r] > vias[mejor] && tamanio[r] + 1 <= maximo) mejor = r;
+                }
+                if (mejor != propia && tamanio[propia] - 1 >= minimo) {
+                    region[u] = mejor;
+                    tamanio[propia]--;
+                    tamanio[mejor]++;
+                    mejoro = true;
+                }
+            }
+            if (!mejoro) break;
+        }
+    }
+
+    // =============================================
+    //  MÉTRICAS
+    // =============================================
+
+    /** Número de vías activas cuyos extremos quedan en regiones distintas. */
+    public static int viasCortadas(GrafoCasanare grafo, int[] region) {
+        int cortadas = 0;
+        for (int u = 0; u < grafo.getNumNodos(); u++) {
+            for (Via v : grafo.getVecinos(u)) {
+                int w = v.getIndiceDestino();
+                if (u < w && v.estaActiva() && region[u] != region[w]) cortadas++;
+            }
+        }
+        return cortadas;
+    }
+
+    // =============================================
+    //  PASO FUERA DE LÍNEA
+    // =============================================
+
+    /**
+     * Escribe un archivo por región en el directorio (ver Region.archivo).
+     * Al ir región por región, solo una región extraída está en memoria a la vez.
+     *
+     * @return número de regiones escritas
+     */
+    public static int escribirRegiones(GrafoCasanare grafo, int[] particion, Path directorio) throws IOException {
+        if (particion.length != grafo.getNumNodos()) {
+            throw new IllegalArgumentException("La partición debe tener " + grafo.getNumNodos() + " elementos");
+        }
+        int k = Arrays.stream(particion).max().orElse(-1) + 1;
+        Files.createDirectories(directorio);
+        for (int r = 0; r < k; r++) {
+            Region.extraer(grafo, particion, r).escribir(Region.archivo(directorio, r));
+        }
+        Files.deleteIfExists(Region.archivo(directorio, k));   // de una partición anterior más grande
+        return k;
+    }
+
+    /** Particiona la red de Casanare y escribe las regiones en el directorio dado. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: Particionador <directorio> [regiones]");
+            System.exit(2);
+        }
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        GrafoCasanare grafo = new GrafoCasanare();
+        grafo.inicializarDatosCasanare();
+        int[] particion = balanceado(grafo, k);
+        Path directorio = Path.of(args[0]);
+        int escritas = escribirRegiones(grafo, particion, directorio);
+        System.out.printf("Regiones: %d | Vías cortadas: %d | Directorio: %s%n",
+                escritas, viasCortadas(grafo, particion), directorio);
+    }
+}
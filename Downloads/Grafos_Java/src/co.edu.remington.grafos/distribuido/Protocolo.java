@@ -0,0 +1,27 @@
+package co.edu.remington.grafos.distribuido;
+
+/**
+ * Códigos de operación entre el coordinador y los trabajadores. Cada mensaje
+ * es un byte de operación seguido de sus argumentos en DataOutputStream;
+ * la respuesta sigue el mismo formato, sin byte de operación.
+ *
+ *   FRONTERA                      -> int nf, nf IDs, matriz nf x nf real, matriz nf x nf penalizada
+ *   DESDE      id, penalizar      -> nf distancias desde id a cada municipio de frontera
+ *   RUTA_LOCAL a, b, penalizar    -> distancia, int longitud, IDs del camino dentro de la región
+ *   CERRAR                        -> (sin respuesta; el trabajador termina)
+ *
+ * Las distancias sin ruta viajan como Double.MAX_VALUE.
+ */
+final class Protocolo {
+
+    static final byte FRONTERA = 1;
+    static final byte DESDE = 2;
+    static final byte RUTA_LOCAL = 3;
+    static final byte CERRAR = 4;
+
+    /** Línea que imprime el trabajador por stdout cuando ya acepta conexiones. */
+    static final String ANUNCIO_PUERTO = "PUERTO ";
+
+    private Protocolo() {
+    }
+}
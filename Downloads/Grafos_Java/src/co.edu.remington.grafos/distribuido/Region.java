@@ -0,0 +1,214 @@
+package co.edu.remington.grafos.distribuido;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.Via;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Subgrafo de una región: sus municipios, las vías activas internas, cuáles
+ * municipios son de frontera y las vías cortadas que salen de ella hacia
+ * otras regiones. Los archivos de región los escribe una sola vez el paso de
+ * partición (Particionador.escribirRegiones); después ningún proceso necesita
+ * el grafo completo: cada trabajador carga su región y el Coordinador solo lee
+ * municipios, frontera y vías cortadas (leerCortes).
+ *
+ * En el archivo las vías internas van de últimas para que leerCortes pueda
+ * detenerse antes de ellas.
+ */
+public class Region {
+
+    private static final int MAGIA = 0x5245474E; // "REGN"
+    private static final int VERSION = 3;
+
+    final int numero;
+    final long[] ids;
+    final String[] nombres;
+    final long[] frontera;           // IDs externos de frontera, en orden fijo
+    final Vias cortes;               // origen en esta región, destino en otra
+    final Vias internas;
+
+    /** Vías como arreglos paralelos, tal como se guardan en el archivo. */
+    static class Vias {
+        final long[] origen;
+        final long[] destino;
+        final double[] distancia;
+        final String[] estado;
+
+        private Vias(int m) {
+            origen = new long[m];
+            destino = new long[m];
+            distancia = new double[m];
+            estado = new String[m];
+        }
+
+        /** Cada vía en el sentido en que aparece en la lista de su origen. */
+        private static Vias de(List<Via> vias) {
+            Vias t = new Vias(vias.size());
+            for (int e = 0; e < vias.size(); e++) {
+                Via v = vias.get(e);
+                t.origen[e] = v.getInversa().getDestino();
+                t.destino[e] = v.getDestino();
+                t.distancia[e] = v.getDistancia();
+                t.estado[e] = v.getEstado();
+            }
+            return t;
+        }
+
+        int size() {
+            return origen.length;
+        }
+
+        private void escribir(DataOutputStream out) throws IOException {
+            out.writeInt(origen.length);
+            for (int e = 0; e < origen.length; e++) {
+                out.writeLong(origen[e]);
+                out.writeLong(destino[e]);
+                out.writeDouble(distancia[e]);
+                out.writeUTF(estado[e]);
+            }
+        }
+
+        private static Vias leer(DataInputStream in) throws IOException {
+            Vias t = new Vias(in.readInt());
+            for (int e = 0; e < t.origen.length; e++) {
+                t.origen[e] = in.readLong();
+                t.destino[e] = in.readLong();
+                t.distancia[e] = in.readDouble();
+                t.estado[e] = in.readUTF();
+            }
+            return t;
+        }
+    }
+
+    private Region(int numero, long[] ids, String[] nombres, long[] frontera, Vias cortes, Vias internas) {
+        this.numero = numero;
+        this.ids = ids;
+        this.nombres = nombres;
+        this.frontera = frontera;
+        this.cortes = cortes;
+        this.internas = internas;
+    }
+
+    /**
+     * Extrae la región r del grafo según la partición dada (por índice compacto).
+     */
+    public static Region extraer(GrafoCasanare grafo, int[] particion, int r) {
+        List<Long> ids = new ArrayList<>();
+        List<Long> frontera = new ArrayList<>();
+        List<Via> cortes = new ArrayList<>();
+        List<Via> internas = new ArrayList<>();
+        for (int u = 0; u < grafo.getNumNodos(); u++) {
+            if (particion[u] != r) continue;
+            ids.add(grafo.getIdExterno(u));
+            boolean esFrontera = false;
+            for (Via v : grafo.getVecinos(u)) {
+                if (!v.estaActiva()) continue;
+                int w = v.getIndiceDestino();
+                if (particion[w] != r) {
+                    esFrontera = true;
+                    cortes.add(v);
+                } else if (u < w) {
+                    internas.add(v);
+                }
+            }
+            if (esFrontera) frontera.add(grafo.getIdExterno(u));
+        }
+
+        String[] nombres = new String[ids.size()];
+        for (int i = 0; i < nombres.length; i++) nombres[i] = grafo.getNombre(ids.get(i));
+        return new Region(r, aArreglo(ids), nombres, aArreglo(frontera), Vias.de(cortes), Vias.de(internas));
+    }
+
+    private static long[] aArreglo(List<Long> lista) {
+        return lista.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /** Reconstruye la región como un GrafoCasanare propio (sin las vías cortadas). */
+    public GrafoCasanare aGrafo() {
+        GrafoCasanare g = new GrafoCasanare();
+        for (int i = 0; i < ids.length; i++) g.agregarMunicipio(ids[i], nombres[i]);
+        for (int e = 0; e < internas.size(); e++) {
+            g.agregarVia(internas.origen[e], internas.destino[e], internas.distancia[e], internas.estado[e]);
+        }
+        return g;
+    }
+
+    public int getNumero() {
+        return numero;
+    }
+
+    public int getNumMunicipios() {
+        return ids.length;
+    }
+
+    public int getNumFrontera() {
+        return frontera.length;
+    }
+
+    public int getNumCortes() {
+        return cortes.size();
+    }
+
+    // =============================================
+    //  ARCHIVO
+    // =============================================
+
+    /** Nombre del archivo de la región r dentro del directorio de una partición. */
+    public static Path archivo(Path directorio, int r) {
+        return directorio.resolve("region-" + r + ".bin");
+    }
+
+    public void escribir(Path archivo) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(archivo)))) {
+            out.writeInt(MAGIA);
+            out.writeInt(VERSION);
+            out.writeInt(numero);
+            out.writeInt(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                out.writeLong(ids[i]);
+                out.writeUTF(nombres[i]);
+            }
+            out.writeInt(frontera.length);
+            for (long f : frontera) out.writeLong(f);
+            cortes.escribir(out);
+            internas.escribir(out);
+        }
+    }
+
+    public static Region leer(Path archivo) throws IOException {
+        return leer(archivo, true);
+    }
+
+    /**
+     * Lee municipios, frontera y vías cortadas, sin las vías internas: lo que
+     * necesita el Coordinador para armar el grafo superpuesto.
+     */
+    public static Region leerCortes(Path archivo) throws IOException {
+        return leer(archivo, false);
+    }
+
+    private static Region leer(Path archivo, boolean conInternas) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(archivo)))) {
+            if (in.readInt() != MAGIA || in.readInt() != VERSION) {
+                throw new IOException("Archivo de región inválido: " + archivo);
+            }
+            int numero = in.readInt();
+            int n = in.readInt();
+            long[] ids = new long[n];
+            String[] nombres = new String[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = in.readLong();
+                nombres[i] = in.readUTF();
+            }
+            long[] frontera = new long[in.readInt()];
+            for (int i = 0; i < frontera.length; i++) frontera[i] = in.readLong();
+            Vias cortes = Vias.leer(in);
+            Vias internas = conInternas ? Vias.leer(in) : new Vias(0);
+            return new Region(numero, ids, nombres, frontera, cortes, internas);
+        }
+    }
+}
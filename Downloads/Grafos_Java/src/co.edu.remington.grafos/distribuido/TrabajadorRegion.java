@@ -0,0 +1,133 @@
+package co.edu.remington.grafos.distribuido;
+
+import co.edu.remington.grafos.algoritmos.ArbolCaminos;
+import co.edu.remington.grafos.algoritmos.Dijkstra;
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+
+/**
+ * Proceso trabajador de una región. Carga solo su subgrafo, precalcula las
+ * distancias entre todos sus municipios de frontera (real y penalizada) y
+ * atiende por un socket de loopback las búsquedas locales que le pide el
+ * Coordinador.
+ *
+ *   java co.edu.remington.grafos.distribuido.TrabajadorRegion <archivo de región>
+ *
+ * Al arrancar imprime "PUERTO n" por stdout. Termina con CERRAR o cuando se
+ * cierra su stdin, es decir, si el coordinador muere sin avisar.
+ */
+public class TrabajadorRegion {
+
+    private final GrafoCasanare grafo;
+    private final Dijkstra dijkstra;
+    private final long[] frontera;
+    private final double[][] atajos = new double[2][];   // [penalizar][i * nf + j]
+
+    TrabajadorRegion(Region region) {
+        this.grafo = region.aGrafo();
+        this.dijkstra = new Dijkstra(grafo);
+        this.frontera = region.frontera;
+        int nf = frontera.length;
+        for (int modo = 0; modo < 2; modo++) {
+            double[] m = new double[nf * nf];
+            for (int i = 0; i < nf; i++) {
+                double[] dist = dijkstra.calcular(frontera[i], modo == 1).dist;
+                for (int j = 0; j < nf; j++) m[i * nf + j] = dist[grafo.getIndice(frontera[j])];
+            }
+            atajos[modo] = m;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Uso: TrabajadorRegion <archivo de región>");
+            System.exit(2);
+        }
+        TrabajadorRegion trabajador = new TrabajadorRegion(Region.leer(Path.of(args[0])));
+
+        Thread guardian = new Thread(() -> {
+            try {
+                while (System.in.read() != -1) {
+                    // se ignora; solo interesa el fin de la entrada
+                }
+            } catch (IOException e) {
+                // stdin roto: igual que EOF
+            }
+            System.exit(0);
+        }, "trabajador-stdin");
+        guardian.setDaemon(true);
+        guardian.start();
+
+        try (ServerSocket servidor = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            System.out.println(Protocolo.ANUNCIO_PUERTO + servidor.getLocalPort());
+            System.out.flush();
+            while (true) {
+                Socket conexion = servidor.accept();
+                Thread t = new Thread(() -> trabajador.atender(conexion), "trabajador-conexion");
+                t.setDaemon(true);
+                t.start();
+            }
+        }
+    }
+
+    // =============================================
+    //  ATENCIÓN DE UNA CONEXIÓN
+    // =============================================
+
+    private void atender(Socket conexion) {
+        try (conexion;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(conexion.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(conexion.getOutputStream()))) {
+            conexion.setTcpNoDelay(true);
+            while (true) {
+                int op = in.read();
+                if (op == -1) return;
+                switch (op) {
+                    case Protocolo.FRONTERA:
+                        enviarFrontera(out);
+                        break;
+                    case Protocolo.DESDE:
+                        enviarDesde(in.readLong(), in.readBoolean(), out);
+                        break;
+                    case Protocolo.RUTA_LOCAL:
+                        enviarRutaLocal(in.readLong(), in.readLong(), in.readBoolean(), out);
+                        break;
+                    case Protocolo.CERRAR:
+                        System.exit(0);
+                        return;
+                    default:
+                        throw new IOException("Operación desconocida: " + op);
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Trabajador: conexión terminada (" + e.getMessage() + ")");
+        }
+    }
+
+    private void enviarFrontera(DataOutputStream out) throws IOException {
+        out.writeInt(frontera.length);
+        for (long f : frontera) out.writeLong(f);
+        for (double[] m : atajos) {
+            for (double d : m) out.writeDouble(d);
+        }
+    }
+
+    private void enviarDesde(long origen, boolean penalizar, DataOutputStream out) throws IOException {
+        double[] dist = dijkstra.calcular(origen, penalizar).dist;
+        for (long f : frontera) out.writeDouble(dist[grafo.getIndice(f)]);
+    }
+
+    private void enviarRutaLocal(long origen, long destino, boolean penalizar, DataOutputStream out) throws IOException {
+        ArbolCaminos arbol = dijkstra.calcularArbol(origen, penalizar);
+        long[] camino = arbol.camino(destino);
+        out.writeDouble(arbol.getDistancia(destino));
+        out.writeInt(camino.length);
+        for (long id : camino) out.writeLong(id);
+    }
+}
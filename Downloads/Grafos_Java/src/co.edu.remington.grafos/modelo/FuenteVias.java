@@ -0,0 +1,76 @@
+package co.edu.remington.grafos.modelo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Origen de municipios y vías que se recorre varias veces sin cargarlo en
+ * memoria. Lo usa GrafoOffHeap.construir para armar redes que no caben en el
+ * heap; cada recorrido debe entregar los mismos elementos en el mismo orden.
+ */
+public interface FuenteVias {
+
+    /** Recibe una vía no dirigida. */
+    interface ConsumidorVia {
+        void via(long origen, long destino, double distancia, String estado);
+    }
+
+    /** Entrega el ID externo de cada municipio, una sola vez cada uno. */
+    void municipios(LongConsumer consumidor) throws IOException;
+
+    /** Entrega cada vía activa una sola vez (no las dos mitades). */
+    void vias(ConsumidorVia consumidor) throws IOException;
+
+    /**
+     * Fuente sobre un archivo de texto con una entrada por línea:
+     *
+     *   M id
+     *   V origen destino distancia estado
+     *
+     * Las líneas vacías y las que empiezan con # se ignoran. Cada recorrido
+     * vuelve a leer el archivo línea por línea.
+     */
+    static FuenteVias deArchivo(Path archivo) {
+        return new FuenteVias() {
+            @Override
+            public void municipios(LongConsumer consumidor) throws IOException {
+                leer(archivo, "M", 2, campos -> consumidor.accept(Long.parseLong(campos[1])));
+            }
+
+            @Override
+            public void vias(ConsumidorVia consumidor) throws IOException {
+                leer(archivo, "V", 5, campos -> consumidor.via(Long.parseLong(campos[1]),
+                        Long.parseLong(campos[2]), Double.parseDouble(campos[3]), campos[4]));
+            }
+        };
+    }
+
+    private static void leer(Path archivo, String tipo, int numCampos, Consumer<String[]> lector) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            int numero = 0;
+            for (String linea = in.readLine(); linea != null; linea = in.readLine()) {
+                numero++;
+                String l = linea.trim();
+                if (l.isEmpty() || l.startsWith("#")) continue;
+                String[] campos = l.split("\\s+");
+                if (!campos[0].equals("M") && !campos[0].equals("V")) {
+                    throw new IOException(archivo + ":" + numero + ": tipo de línea desconocido: " + campos[0]);
+                }
+                if (!campos[0].equals(tipo)) continue;
+                if (campos.length != numCampos) {
+                    throw new IOException(archivo + ":" + numero + ": se esperaban " + numCampos + " campos");
+                }
+                try {
+                    lector.accept(campos);
+                } catch (NumberFormatException e) {
+                    throw new IOException(archivo + ":" + numero + ": número inválido: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -1,52 +1,257 @@
 package co.edu.remington.grafos.modelo;
 
+import co.edu.remington.grafos.utilidades.MapaLongInt;
+
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Clase que representa el grafo completo de la red vial de Casanare.
  * Implementa tanto lista de adyacencia como matriz de adyacencia.
+ *
+ * Los IDs de municipio son externos (long) y pueden ser arbitrarios (códigos DANE,
+ * nodos OSM). Internamente cada municipio recibe un índice compacto 0..n-1
+ * en orden de inserción (o en el orden fijado con reordenar); los algoritmos
+ * trabajan sobre esos índices y la API pública sigue recibiendo y devolviendo
+ * IDs externos.
+ *
+ * Las vías eliminadas quedan como lápidas (se saltan en los recorridos) hasta
+ * que una compactación en segundo plano las purga, de modo que eliminar o
+ * cerrar una vía cuesta O(grado) y no bloquea a los lectores.
+ *
+ * Los lectores no toman el candado. Ninguna lista de vías publicada se
+ * modifica en sitio: agregar una vía reemplaza las dos listas afectadas por
+ * copias inmodificables, y la compactación y el reordenamiento arman un
+ * arreglo nuevo; en todos los casos se publica con una escritura al arreglo
+ * volátil. El mapa ID -> índice publicado tampoco se modifica: los IDs nuevos
+ * van a un mapa concurrente de recientes que se funde en un mapa nuevo cuando
+ * alcanza el tamaño del publicado (copia amortizada). numNodos se escribe de
+ * último al agregar un municipio; los algoritmos que dimensionan sus arreglos
+ * con getNumNodos() al empezar suponen que no se agregan municipios mientras
+ * corren (agregar vías entre municipios existentes sí es seguro).
  */
 public class GrafoCasanare {
 
-    private Map<Integer, List<Via>> listaAdyacencia;
-    private Map<Integer, String> municipios;
-    private int numNodos;
+    private final Map<Long, List<Via>> listaAdyacencia;
+    private final Map<Long, String> municipios;
+    private volatile int numNodos;
+
+    // Capa de índices compactos
+    private volatile MapaLongInt indices;        // ID externo -> índice compacto; inmutable una vez publicado
+    private final Map<Long, Integer> indicesRecientes = new ConcurrentHashMap<>();  // aún no fundidos
+    private volatile long[] idsPorIndice;        // índice compacto -> ID externo (crece al doble)
+    private volatile List<Via>[] adyacencia;     // listas de vías por índice compacto (crece al doble)
+
+    // Vías por idVia (mitad de ida; null una vez purgada)
+    private List<Via> viasPorId;
+    private int numViasActivas;
+    private int lapidas;
+
+    // Compactación: se dispara al superar max(MIN_LAPIDAS, FRACCION_LAPIDAS * vías vivas)
+    private static final int MIN_LAPIDAS = 64;
+    private static final int MIN_RECIENTES = 64;
+    private static final double FRACCION_LAPIDAS = 0.25;
+    private final AtomicBoolean compactacionPendiente = new AtomicBoolean(false);
+    private ExecutorService compactador;
+
+    private final List<OyenteGrafo> oyentes = new CopyOnWriteArrayList<>();
 
     public GrafoCasanare() {
-        listaAdyacencia = new HashMap<>();
-        municipios = new HashMap<>();
+        listaAdyacencia = new ConcurrentHashMap<>();
+        municipios = new ConcurrentHashMap<>();
         numNodos = 0;
+        indices = new MapaLongInt();
+        idsPorIndice = new long[16];
+        adyacencia = nuevaTabla(16);
+        viasPorId = new ArrayList<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Via>[] nuevaTabla(int capacidad) {
+        return (List<Via>[]) new List<?>[capacidad];
     }
 
     // =============================================
     //  MÉTODOS DE CONSTRUCCIÓN DEL GRAFO
     // =============================================
 
-    public void agregarMunicipio(int id, String nombre) {
+    public synchronized void agregarMunicipio(long id, String nombre) {
         municipios.put(id, nombre);
-        listaAdyacencia.putIfAbsent(id, new ArrayList<>());
-        numNodos = municipios.size();
+        if (getIndice(id) < 0) {
+            int n = numNodos;
+            List<Via> vias = List.of();
+            listaAdyacencia.put(id, vias);
+            long[] ids = n == idsPorIndice.length ? Arrays.copyOf(idsPorIndice, n * 2) : idsPorIndice;
+            List<Via>[] tabla = n == adyacencia.length ? Arrays.copyOf(adyacencia, n * 2) : adyacencia;
+            indicesRecientes.put(id, n);
+            ids[n] = id;
+            tabla[n] = vias;
+            idsPorIndice = ids;
+            adyacencia = tabla;
+            numNodos = n + 1;   // último: quien lo lea ve la casilla ya escrita
+            if (indicesRecientes.size() >= Math.max(MIN_RECIENTES, indices.size())) fundirIndices();
+        }
+        for (OyenteGrafo o : oyentes) o.municipioAgregado(id, nombre);
     }
 
-    public void agregarVia(int origen, int destino, double distancia, String estado) {
+    /**
+     * Agrega una vía no dirigida.
+     * @return idVia asignado, o -1 si alguno de los municipios no existe
+     */
+    public synchronized int agregarVia(long origen, long destino, double distancia, String estado) {
         if (!listaAdyacencia.containsKey(origen) || !listaAdyacencia.containsKey(destino)) {
             System.out.println("Error: uno de los municipios no existe.");
-            return;
+            return -1;
         }
         // Grafo no dirigido: se agrega en ambas direcciones
-        listaAdyacencia.get(origen).add(new Via(destino, distancia, estado));
-        listaAdyacencia.get(destino).add(new Via(origen, distancia, estado));
+        int idVia = viasPorId.size();
+        int iOrigen = getIndice(origen);
+        int iDestino = getIndice(destino);
+        Via ida = new Via(idVia, destino, iDestino, distancia, estado);
+        Via vuelta = new Via(idVia, origen, iOrigen, distancia, estado);
+        Via.enlazar(ida, vuelta);
+        // Copia en escritura: quien esté iterando la lista vieja la termina sin cambios
+        List<Via>[] tabla = adyacencia;
+        tabla[iOrigen] = conVia(tabla[iOrigen], ida);
+        tabla[iDestino] = conVia(tabla[iDestino], vuelta);
+        listaAdyacencia.put(origen, tabla[iOrigen]);
+        listaAdyacencia.put(destino, tabla[iDestino]);
+        adyacencia = tabla;     // escritura volátil: publica las casillas nuevas
+        viasPorId.add(ida);
+        numViasActivas++;
+        for (OyenteGrafo o : oyentes) o.viaAgregada(idVia, origen, destino, distancia, estado);
+        return idVia;
+    }
+
+    private static List<Via> conVia(List<Via> vias, Via nueva) {
+        List<Via> copia = new ArrayList<>(vias.size() + 1);
+        copia.addAll(vias);
+        copia.add(nueva);
+        return Collections.unmodifiableList(copia);
+    }
+
+    // =============================================
+    //  ELIMINACIÓN Y CIERRE DE VÍAS
+    // =============================================
+
+    /**
+     * Elimina la vía con el id dado dejando una lápida en ambas mitades.
+     * @return true si la vía existía y no estaba eliminada
+     */
+    public synchronized boolean eliminarVia(int idVia) {
+        Via v = getVia(idVia);
+        if (v == null || v.isEliminada()) return false;
+        v.marcarEliminada();
+        numViasActivas--;
+        lapidas++;
+        if (lapidas >= Math.max(MIN_LAPIDAS, FRACCION_LAPIDAS * numViasActivas)) {
+            programarCompactacion();
+        }
+        for (OyenteGrafo o : oyentes) o.viaEliminada(idVia);
+        return true;
+    }
+
+    /**
+     * Elimina todas las vías directas entre dos municipios.
+     * @return número de vías eliminadas
+     */
+    public synchronized int eliminarVia(long origen, long destino) {
+        int eliminadas = 0;
+        for (Via v : buscarVias(origen, destino)) {
+            if (eliminarVia(v.getIdVia())) eliminadas++;
+        }
+        return eliminadas;
+    }
+
+    /**
+     * Cierra (cerrar = true) o reabre temporalmente todas las vías directas
+     * entre dos municipios. Una vía cerrada conserva su lugar y no se compacta.
+     * @return número de vías afectadas
+     */
+    public synchronized int cerrarVia(long origen, long destino, boolean cerrar) {
+        List<Via> vias = buscarVias(origen, destino);
+        for (Via v : vias) cerrarVia(v.getIdVia(), cerrar);
+        return vias.size();
+    }
+
+    /**
+     * Cierra o reabre la vía con el id dado.
+     * @return true si la vía existe y no está eliminada
+     */
+    public synchronized boolean cerrarVia(int idVia, boolean cerrar) {
+        Via v = getVia(idVia);
+        if (v == null || v.isEliminada()) return false;
+        v.setCerrada(cerrar);
+        for (OyenteGrafo o : oyentes) o.viaCerrada(idVia, cerrar);
+        return true;
+    }
+
+    private List<Via> buscarVias(long origen, long destino) {
+        List<Via> encontradas = new ArrayList<>();
+        int iOrigen = getIndice(origen);
+        if (iOrigen < 0) return encontradas;
+        for (Via v : adyacencia[iOrigen]) {
+            if (v.getDestino() == destino && !v.isEliminada()) encontradas.add(v);
+        }
+        return encontradas;
+    }
+
+    /**
+     * Purga las lápidas: reemplaza cada lista que las contenga por una copia
+     * sin ellas. Los lectores que estén iterando la lista anterior la terminan
+     * normalmente, porque nunca se modifica en sitio; las copias se publican
+     * juntas asignando un arreglo nuevo al campo volátil.
+     */
+    public synchronized void compactar() {
+        compactacionPendiente.set(false);
+        if (lapidas == 0) return;
+        List<Via>[] tabla = adyacencia.clone();
+        for (int i = 0; i < numNodos; i++) {
+            List<Via> vias = tabla[i];
+            List<Via> vivas = null;
+            for (int k = 0; k < vias.size(); k++) {
+                Via v = vias.get(k);
+                if (v.isEliminada() && vivas == null) vivas = new ArrayList<>(vias.subList(0, k));
+                else if (!v.isEliminada() && vivas != null) vivas.add(v);
+            }
+            if (vivas != null) {
+                tabla[i] = vivas;
+                listaAdyacencia.put(idsPorIndice[i], vivas);
+            }
+        }
+        adyacencia = tabla;
+        for (int id = 0; id < viasPorId.size(); id++) {
+            Via v = viasPorId.get(id);
+            if (v != null && v.isEliminada()) viasPorId.set(id, null);
+        }
+        lapidas = 0;
+    }
+
+    private void programarCompactacion() {
+        if (!compactacionPendiente.compareAndSet(false, true)) return;
+        if (compactador == null) {
+            compactador = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "compactador-grafo");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        compactador.execute(this::compactar);
     }
 
     // =============================================
     //  GETTERS
     // =============================================
 
-    public Map<Integer, List<Via>> getListaAdyacencia() {
+    public Map<Long, List<Via>> getListaAdyacencia() {
         return listaAdyacencia;
     }
 
-    public Map<Integer, String> getMunicipios() {
+    public Map<Long, String> getMunicipios() {
         return municipios;
     }
 
@@ -54,32 +259,165 @@ public class GrafoCasanare {
         return numNodos;
     }
 
-    public String getNombre(int id) {
+    /** Número de vías no eliminadas (incluye las cerradas). */
+    public int getNumVias() {
+        return numViasActivas;
+    }
+
+    /** Cota superior (exclusiva) de los idVia asignados; útil para dimensionar arreglos. */
+    public int getLimiteIdVia() {
+        return viasPorId.size();
+    }
+
+    /** Retorna la mitad de ida de la vía, o null si no existe o ya fue purgada. */
+    public Via getVia(int idVia) {
+        if (idVia < 0 || idVia >= viasPorId.size()) return null;
+        return viasPorId.get(idVia);
+    }
+
+    public int getNumLapidas() {
+        return lapidas;
+    }
+
+    /**
+     * Huella de la estructura actual: IDs en orden de índice compacto y vías
+     * activas con distancia y estado. Permite comprobar que un preprocesamiento
+     * guardado en disco corresponde a este grafo.
+     */
+    public synchronized long calcularFirma() {
+        long h = 1125899906842597L;
+        for (int i = 0; i < numNodos; i++) {
+            h = 31 * h + idsPorIndice[i];
+            for (Via v : adyacencia[i]) {
+                if (!v.estaActiva()) continue;
+                h = 31 * h + v.getIndiceDestino();
+                h = 31 * h + Double.hashCode(v.getDistancia());
+                h = 31 * h + v.getEstado().hashCode();
+            }
+        }
+        return h;
+    }
+
+    // =============================================
+    //  OYENTES DE MUTACIONES
+    // =============================================
+
+    public void agregarOyente(OyenteGrafo oyente) {
+        oyentes.add(oyente);
+    }
+
+    public void quitarOyente(OyenteGrafo oyente) {
+        oyentes.remove(oyente);
+    }
+
+    public String getNombre(long id) {
         return municipios.getOrDefault(id, "Desconocido");
     }
 
-    public List<Integer> getIds() {
-        List<Integer> ids = new ArrayList<>(municipios.keySet());
+    public List<Long> getIds() {
+        List<Long> ids = new ArrayList<>(municipios.keySet());
         Collections.sort(ids);
         return ids;
     }
 
+    // =============================================
+    //  ÍNDICES COMPACTOS
+    // =============================================
+
+    /**
+     * Retorna el índice compacto (0..n-1) del municipio, o -1 si no existe.
+     */
+    public int getIndice(long id) {
+        // Primero los recientes: al fundirlos se publica el mapa nuevo antes de vaciarlos
+        if (!indicesRecientes.isEmpty()) {
+            Integer reciente = indicesRecientes.get(id);
+            if (reciente != null) return reciente;
+        }
+        return indices.get(id);
+    }
+
+    /** Publica un mapa nuevo con todos los IDs y vacía los recientes. */
+    private void fundirIndices() {
+        int n = numNodos;
+        MapaLongInt nuevo = new MapaLongInt(n);
+        for (int i = 0; i < n; i++) nuevo.put(idsPorIndice[i], i);
+        indices = nuevo;
+        indicesRecientes.clear();
+    }
+
+    /**
+     * Retorna el ID externo correspondiente a un índice compacto.
+     */
+    public long getIdExterno(int indice) {
+        return idsPorIndice[Objects.checkIndex(indice, numNodos)];
+    }
+
+    /**
+     * Retorna las vías que salen del municipio con el índice compacto dado.
+     * Cada vía expone getIndiceDestino() para seguir recorriendo sin traducir IDs.
+     */
+    public List<Via> getVecinos(int indice) {
+        return adyacencia[Objects.checkIndex(indice, numNodos)];
+    }
+
+    /**
+     * Renumera los índices compactos según la permutación dada, normalmente
+     * calculada con utilidades.Reordenamiento para que los vecinos queden
+     * cerca en memoria. Conviene hacerlo antes de construir estructuras
+     * derivadas (GrafoOffHeap, índices): los resultados calculados antes
+     * quedan indexados con la numeración vieja. Los IDs externos no cambian.
+     *
+     * @param orden orden[nuevo] = índice viejo; debe ser una permutación de 0..n-1
+     */
+    public synchronized void reordenar(int[] orden) {
+        int n = numNodos;
+        int[] nuevoIndice = new int[n];
+        Arrays.fill(nuevoIndice, -1);
+        if (orden.length != n) throw new IllegalArgumentException("La permutación debe tener " + n + " elementos");
+        for (int nuevo = 0; nuevo < n; nuevo++) {
+            int viejo = orden[nuevo];
+            if (viejo < 0 || viejo >= n || nuevoIndice[viejo] != -1) {
+                throw new IllegalArgumentException("Permutación inválida en la posición " + nuevo);
+            }
+            nuevoIndice[viejo] = nuevo;
+        }
+
+        long[] nuevosIds = new long[idsPorIndice.length];
+        List<Via>[] nuevaAdyacencia = nuevaTabla(adyacencia.length);
+        for (int nuevo = 0; nuevo < n; nuevo++) {
+            long id = idsPorIndice[orden[nuevo]];
+            nuevosIds[nuevo] = id;
+            nuevaAdyacencia[nuevo] = adyacencia[orden[nuevo]];
+        }
+        for (int i = 0; i < n; i++) {
+            for (Via v : nuevaAdyacencia[i]) v.setIndiceDestino(nuevoIndice[v.getIndiceDestino()]);
+        }
+        idsPorIndice = nuevosIds;
+        adyacencia = nuevaAdyacencia;
+        fundirIndices();
+        for (OyenteGrafo o : oyentes) o.indicesReordenados();
+    }
+
     // =============================================
     //  MOSTRAR LISTA DE ADYACENCIA
     // =============================================
 
     public void mostrarListaAdyacencia() {
         System.out.println("\n======= LISTA DE ADYACENCIA =======");
-        for (int id : getIds()) {
+        for (long id : getIds()) {
             System.out.print(getNombre(id) + " (" + id + "): ");
-            List<Via> vias = listaAdyacencia.get(id);
+            List<Via> vias = new ArrayList<>();
+            for (Via v : listaAdyacencia.get(id)) {
+                if (!v.isEliminada()) vias.add(v);
+            }
             if (vias.isEmpty()) {
                 System.out.println("Sin conexiones");
             } else {
                 for (Via v : vias) {
-                    System.out.printf("  %s (%s) [%.1f km, %s]\n",
+                    System.out.printf("  %s (%s) [%.1f km, %s]%s\n",
                             getNombre(v.getDestino()), v.getDestino(),
-                            v.getDistancia(), v.getEstado());
+                            v.getDistancia(), v.getEstado(),
+                            v.isCerrada() ? " CERRADA" : "");
                 }
             }
         }
@@ -92,16 +430,19 @@ public class GrafoCasanare {
 
     /**
      * Construye y retorna la matriz de adyacencia con distancias reales.
-     * 0 = sin conexión directa, valor > 0 = distancia en km.
+     * 0 = sin conexión directa, valor > 0 = distancia en km (la menor si hay vías paralelas).
+     * Filas y columnas están indexadas por índice compacto (ver getIdExterno).
      */
     public double[][] obtenerMatrizAdyacencia() {
         int n = numNodos;
         double[][] matriz = new double[n][n];
-        for (int i = 0; i < n; i++) Arrays.fill(matriz[i], 0);
 
-        for (int id : getIds()) {
-            for (Via v : listaAdyacencia.get(id)) {
-                matriz[id][v.getDestino()] = v.getDistancia();
+        for (int i = 0; i < n; i++) {
+            for (Via v : adyacencia[i]) {
+                if (!v.estaActiva()) continue;
+                int j = v.getIndiceDestino();
+                // Con vías paralelas se queda la más corta
+                if (matriz[i][j] == 0 || v.getDistancia() < matriz[i][j]) matriz[i][j] = v.getDistancia();
             }
         }
         return matriz;
@@ -115,13 +456,15 @@ public class GrafoCasanare {
         // Encabezado
         System.out.printf("%18s", "");
         for (int i = 0; i < n; i++) {
-            System.out.printf("%8s", getNombre(i).substring(0, Math.min(7, getNombre(i).length())));
+            String nombre = getNombre(getIdExterno(i));
+            System.out.printf("%8s", nombre.substring(0, Math.min(7, nombre.length())));
         }
         System.out.println();
 
         // Filas
         for (int i = 0; i < n; i++) {
-            System.out.printf("%18s", getNombre(i).substring(0, Math.min(17, getNombre(i).length())));
+            String nombre = getNombre(getIdExterno(i));
+            System.out.printf("%18s", nombre.substring(0, Math.min(17, nombre.length())));
             for (int j = 0; j < n; j++) {
                 if (m[i][j] == 0) System.out.printf("%8s", "-");
                 else System.out.printf("%8.1f", m[i][j]);
@@ -140,16 +483,16 @@ public class GrafoCasanare {
      */
     public boolean esConexo() {
         if (municipios.isEmpty()) return true;
-        Set<Integer> visitados = new HashSet<>();
-        Queue<Integer> cola = new LinkedList<>();
-        int inicio = getIds().get(0);
+        Set<Long> visitados = new HashSet<>();
+        Queue<Long> cola = new LinkedList<>();
+        long inicio = getIds().get(0);
         cola.add(inicio);
         visitados.add(inicio);
 
         while (!cola.isEmpty()) {
-            int actual = cola.poll();
+            long actual = cola.poll();
             for (Via v : listaAdyacencia.get(actual)) {
-                if (!visitados.contains(v.getDestino())) {
+                if (v.estaActiva() && !visitados.contains(v.getDestino())) {
                     visitados.add(v.getDestino());
                     cola.add(v.getDestino());
                 }
@@ -162,13 +505,11 @@ public class GrafoCasanare {
     //  MUNICIPIOS PUENTE (Algoritmo de Tarjan)
     // =============================================
 
-    private int timerPuente;
-
     /**
      * Identifica los municipios (nodos) cuya eliminación desconectaría el grafo.
      * Usa el algoritmo DFS de Tarjan para puntos de articulación.
      */
-    public List<Integer> encontrarMunicipiosPuente() {
+    public List<Long> encontrarMunicipiosPuente() {
         int n = numNodos;
         boolean[] visitado = new boolean[n];
         int[] disc = new int[n];      // tiempo de descubrimiento
@@ -176,33 +517,34 @@ public class GrafoCasanare {
         int[] padre = new int[n];
         boolean[] esPuente = new boolean[n];
         Arrays.fill(padre, -1);
-        timerPuente = 0;
+        int[] reloj = {0};            // local para que consultas concurrentes no se pisen
 
-        for (int i : getIds()) {
+        for (int i = 0; i < n; i++) {
             if (!visitado[i]) {
-                dfsPuente(i, visitado, disc, low, padre, esPuente);
+                dfsPuente(i, visitado, disc, low, padre, esPuente, reloj);
             }
         }
 
-        List<Integer> puentes = new ArrayList<>();
-        for (int i : getIds()) {
-            if (esPuente[i]) puentes.add(i);
+        List<Long> puentes = new ArrayList<>();
+        for (long id : getIds()) {
+            if (esPuente[getIndice(id)]) puentes.add(id);
         }
         return puentes;
     }
 
     private void dfsPuente(int u, boolean[] visitado, int[] disc, int[] low,
-                            int[] padre, boolean[] esPuente) {
+                            int[] padre, boolean[] esPuente, int[] reloj) {
         visitado[u] = true;
-        disc[u] = low[u] = timerPuente++;
+        disc[u] = low[u] = reloj[0]++;
         int hijosRaiz = 0;
 
-        for (Via v : listaAdyacencia.get(u)) {
-            int w = v.getDestino();
+        for (Via v : adyacencia[u]) {
+            if (!v.estaActiva()) continue;
+            int w = v.getIndiceDestino();
             if (!visitado[w]) {
                 hijosRaiz++;
                 padre[w] = u;
-                dfsPuente(w, visitado, disc, low, padre, esPuente);
+                dfsPuente(w, visitado, disc, low, padre, esPuente, reloj);
                 low[u] = Math.min(low[u], low[w]);
 
                 // u es punto de articulación si:
@@ -0,0 +1,419 @@
+package co.edu.remington.grafos.modelo;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Representación inmutable de la red vial fuera del heap de Java.
+ *
+ * La estructura se guarda en formato CSR (compressed sparse row) sobre buffers
+ * directos, o sobre un archivo mapeado en memoria cuando se indica una ruta.
+ * Así ni las vías ni los pesos generan objetos para el recolector de basura.
+ * El índice ID externo -> índice compacto también vive fuera del heap: es la
+ * sección orden, los índices ordenados por ID, sobre la que getIndice hace
+ * búsqueda binaria.
+ *
+ * Distribución del archivo (little-endian; cada sección empieza en múltiplo de 8):
+ *   cabecera (16 bytes): MAGIA, VERSION, numNodos, numArcos
+ *   ids         long[numNodos]    ID externo de cada índice compacto
+ *   orden       int[numNodos]     índices compactos ordenados por ID externo
+ *   inicio      int[numNodos + 1] primer arco de cada nodo
+ *   distancias  double[numArcos]  km de cada arco
+ *   destinos    int[numArcos]     índice compacto del destino
+ *   estados     byte[numArcos]    0 = Bueno, 1 = Regular, 2 = Malo
+ *
+ * Se puede copiar de un GrafoCasanare (desde) o armar directamente en un
+ * archivo desde una FuenteVias (construir), sin pasar por objetos Via, para
+ * redes que no caben en el heap. Los nombres de los municipios no se guardan.
+ * Solo se copian las vías activas: una vía eliminada o cerrada no aparece.
+ */
+public class GrafoOffHeap {
+
+    private static final int MAGIA = 0x4752464F; // "GRFO"
+    private static final int VERSION = 3;
+    private static final int CABECERA = 16;
+
+    // Secciones, en el orden del archivo
+    private static final int IDS = 0, ORDEN = 1, INICIO = 2, DISTANCIAS = 3, DESTINOS = 4, CODIGOS_ESTADO = 5;
+    private static final int NUM_SECCIONES = 6;
+
+    public static final String[] ESTADOS = {"Bueno", "Regular", "Malo"};
+    private static final double[] FACTORES = {
+            Via.factorPenalizacion(ESTADOS[0]),
+            Via.factorPenalizacion(ESTADOS[1]),
+            Via.factorPenalizacion(ESTADOS[2])
+    };
+
+    private final int numNodos;
+    private final int numArcos;
+    private final LongBuffer ids;
+    private final IntBuffer orden;
+    private final IntBuffer inicio;
+    private final DoubleBuffer distancias;
+    private final IntBuffer destinos;
+    private final ByteBuffer estados;
+    private final MappedByteBuffer[] mapeos; // null si vive en memoria directa
+
+    private GrafoOffHeap(int numNodos, int numArcos, ByteBuffer[] secciones, MappedByteBuffer[] mapeos) {
+        this.numNodos = numNodos;
+        this.numArcos = numArcos;
+        this.ids = secciones[IDS].asLongBuffer();
+        this.orden = secciones[ORDEN].asIntBuffer();
+        this.inicio = secciones[INICIO].asIntBuffer();
+        this.distancias = secciones[DISTANCIAS].asDoubleBuffer();
+        this.destinos = secciones[DESTINOS].asIntBuffer();
+        this.estados = secciones[CODIGOS_ESTADO];
+        this.mapeos = mapeos;
+    }
+
+    // =============================================
+    //  CONSTRUCCIÓN
+    // =============================================
+
+    /**
+     * Copia la estructura del grafo a memoria directa (fuera del heap).
+     * El conteo y la copia se hacen con el grafo bloqueado para que ambos
+     * vean el mismo estado.
+     */
+    public static GrafoOffHeap desde(GrafoCasanare grafo) {
+        synchronized (grafo) {
+            int n = grafo.getNumNodos();
+            long[] tamanios = tamaniosSecciones(n, contarArcos(grafo));
+            ByteBuffer[] secciones = new ByteBuffer[NUM_SECCIONES];
+            for (int s = 0; s < secciones.length; s++) {
+                secciones[s] = ByteBuffer.allocateDirect((int) tamanios[s]).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            int m = volcar(grafo, secciones);
+            return new GrafoOffHeap(n, m, secciones, null);
+        }
+    }
+
+    /**
+     * Escribe la estructura del grafo en un archivo y la deja mapeada en memoria.
+     * Igual que desde(grafo), el grafo queda bloqueado mientras se escribe.
+     */
+    public static GrafoOffHeap desde(GrafoCasanare grafo, Path archivo) throws IOException {
+        synchronized (grafo) {
+            int n = grafo.getNumNodos();
+            long[] tamanios = tamaniosSecciones(n, contarArcos(grafo));
+            try (FileChannel canal = abrirParaEscribir(archivo)) {
+                MappedByteBuffer[] mapeos = new MappedByteBuffer[NUM_SECCIONES];
+                for (int s = 0; s < NUM_SECCIONES; s++) {
+                    mapeos[s] = mapear(canal, FileChannel.MapMode.READ_WRITE, tamanios, s);
+                }
+                int m = volcar(grafo, mapeos);
+                return cerrarArchivo(canal, n, m, mapeos);
+            }
+        }
+    }
+
+    /**
+     * Arma la estructura en un archivo directamente desde la fuente, sin
+     * crear objetos por municipio ni por vía: el heap usado no depende del
+     * tamaño de la red. Recorre los municipios dos veces y las vías otras dos
+     * (conteo de grados y colocación de arcos). Los índices compactos siguen el
+     * orden en que la fuente entrega los municipios.
+     *
+     * @throws IllegalArgumentException si hay municipios repetidos, una vía
+     *         hacia un municipio que la fuente no entregó, o la red no cabe
+     *         en secciones de 2 GB
+     */
+    public static GrafoOffHeap construir(FuenteVias fuente, Path archivo) throws IOException {
+        long[] contador = new long[1];
+        fuente.municipios(id -> contador[0]++);
+        long[] tamanios = tamaniosSecciones(contador[0], 0);
+        int n = (int) contador[0];
+
+        try (FileChannel canal = abrirParaEscribir(archivo)) {
+            // Secciones de tamaño n: van primero, así que no dependen de m
+            MappedByteBuffer[] mapeos = new MappedByteBuffer[NUM_SECCIONES];
+            for (int s = IDS; s <= INICIO; s++) mapeos[s] = mapear(canal, FileChannel.MapMode.READ_WRITE, tamanios, s);
+            LongBuffer ids = mapeos[IDS].asLongBuffer();
+            IntBuffer orden = mapeos[ORDEN].asIntBuffer();
+            IntBuffer inicio = mapeos[INICIO].asIntBuffer();
+
+            int[] siguiente = new int[1];
+            fuente.municipios(id -> {
+                if (siguiente[0] == n) throw new IllegalStateException("La fuente entregó más municipios en el segundo recorrido");
+                ids.put(siguiente[0]++, id);
+            });
+            if (siguiente[0] != n) throw new IllegalStateException("La fuente entregó menos municipios en el segundo recorrido");
+            indexarIds(ids, orden, n);
+
+            // Grados: inicio[u + 1] cuenta los arcos de u
+            for (int u = 0; u <= n; u++) inicio.put(u, 0);
+            long[] arcos = new long[1];
+            fuente.vias((origen, destino, distancia, estado) -> {
+                int u = indiceExistente(ids, orden, n, origen), w = indiceExistente(ids, orden, n, destino);
+                arcos[0] += 2;
+                verificarArcos(arcos[0]);
+                inicio.put(u + 1, inicio.get(u + 1) + 1);
+                inicio.put(w + 1, inicio.get(w + 1) + 1);
+            });
+            int m = (int) arcos[0];
+            for (int u = 0; u < n; u++) inicio.put(u + 1, inicio.get(u + 1) + inicio.get(u));
+
+            // Colocación: inicio[u] sirve de cursor y al terminar apunta al fin de u
+            tamanios = tamaniosSecciones(n, m);
+            for (int s = DISTANCIAS; s <= CODIGOS_ESTADO; s++) mapeos[s] = mapear(canal, FileChannel.MapMode.READ_WRITE, tamanios, s);
+            ByteBuffer[] secciones = mapeos;
+            int[] colocados = new int[1];
+            fuente.vias((origen, destino, distancia, estado) -> {
+                if (colocados[0] == m) throw new IllegalStateException("La fuente entregó más vías en el segundo recorrido");
+                int u = indiceExistente(ids, orden, n, origen), w = indiceExistente(ids, orden, n, destino);
+                byte codigo = codigoEstado(estado);
+                colocarArco(secciones, inicio, u, w, distancia, codigo);
+                colocarArco(secciones, inicio, w, u, distancia, codigo);
+                colocados[0] += 2;
+            });
+            if (colocados[0] != m) throw new IllegalStateException("La fuente entregó menos vías en el segundo recorrido");
+            for (int u = n; u > 0; u--) inicio.put(u, inicio.get(u - 1));
+            inicio.put(0, 0);
+            return cerrarArchivo(canal, n, m, mapeos);
+        }
+    }
+
+    private static void colocarArco(ByteBuffer[] secciones, IntBuffer inicio, int u, int w,
+                                    double distancia, byte estado) {
+        int arco = inicio.get(u);
+        inicio.put(u, arco + 1);
+        secciones[DISTANCIAS].putDouble(arco * Double.BYTES, distancia);
+        secciones[DESTINOS].putInt(arco * Integer.BYTES, w);
+        secciones[CODIGOS_ESTADO].put(arco, estado);
+    }
+
+    /**
+     * Abre (solo lectura) un archivo creado previamente con desde(grafo, archivo)
+     * o con construir.
+     */
+    public static GrafoOffHeap abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+            canal.read(cabecera, 0);
+            cabecera.flip();
+            if (cabecera.remaining() < CABECERA || cabecera.getInt() != MAGIA || cabecera.getInt() != VERSION) {
+                throw new IOException("Archivo de grafo inválido: " + archivo);
+            }
+            int n = cabecera.getInt();
+            int m = cabecera.getInt();
+            long[] tamanios = tamaniosSecciones(n, m);
+            MappedByteBuffer[] mapeos = new MappedByteBuffer[NUM_SECCIONES];
+            for (int s = 0; s < NUM_SECCIONES; s++) mapeos[s] = mapear(canal, FileChannel.MapMode.READ_ONLY, tamanios, s);
+            return new GrafoOffHeap(n, m, mapeos, mapeos);
+        }
+    }
+
+    private static FileChannel abrirParaEscribir(Path archivo) throws IOException {
+        return FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Baja las secciones a disco y escribe la cabecera de último, para que un
+     * archivo a medio escribir no pase por válido al abrirlo.
+     */
+    private static GrafoOffHeap cerrarArchivo(FileChannel canal, int n, int m,
+                                              MappedByteBuffer[] mapeos) throws IOException {
+        for (MappedByteBuffer mb : mapeos) mb.force();
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+        cabecera.putInt(MAGIA).putInt(VERSION).putInt(n).putInt(m).flip();
+        canal.write(cabecera, 0);
+        canal.force(true);
+        return new GrafoOffHeap(n, m, mapeos, mapeos);
+    }
+
+    private static long contarArcos(GrafoCasanare grafo) {
+        long m = 0;
+        for (int i = 0; i < grafo.getNumNodos(); i++) {
+            for (Via v : grafo.getVecinos(i)) {
+                if (v.estaActiva()) m++;
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Bytes de cada sección. Cada una se mapea o reserva por separado, así
+     * que ninguna puede pasar de Integer.MAX_VALUE bytes.
+     */
+    private static long[] tamaniosSecciones(long n, long m) {
+        long[] tamanios = new long[NUM_SECCIONES];
+        tamanios[IDS] = n * Long.BYTES;
+        tamanios[ORDEN] = n * Integer.BYTES;
+        tamanios[INICIO] = (n + 1) * Integer.BYTES;
+        tamanios[DISTANCIAS] = m * Double.BYTES;
+        tamanios[DESTINOS] = m * Integer.BYTES;
+        tamanios[CODIGOS_ESTADO] = m;
+        if (tamanios[IDS] > Integer.MAX_VALUE || tamanios[INICIO] > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiados municipios para una sección: " + n);
+        }
+        verificarArcos(m);
+        return tamanios;
+    }
+
+    private static void verificarArcos(long m) {
+        if (m * Double.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiados arcos para una sección: " + m);
+        }
+    }
+
+    /** Mapea la sección s; las anteriores determinan dónde empieza. */
+    private static MappedByteBuffer mapear(FileChannel canal, FileChannel.MapMode modo,
+                                           long[] tamanios, int s) throws IOException {
+        long desplazamiento = CABECERA;
+        for (int t = 0; t < s; t++) desplazamiento = alinear(desplazamiento + tamanios[t]);
+        MappedByteBuffer mb = canal.map(modo, desplazamiento, tamanios[s]);
+        mb.order(ByteOrder.LITTLE_ENDIAN);
+        return mb;
+    }
+
+    private static long alinear(long desplazamiento) {
+        return (desplazamiento + 7) & ~7L;
+    }
+
+    /** Vuelca el grafo en las secciones y retorna el número de arcos escritos. */
+    private static int volcar(GrafoCasanare grafo, ByteBuffer[] secciones) {
+        int n = grafo.getNumNodos();
+        int arco = 0;
+        for (int i = 0; i < n; i++) {
+            secciones[IDS].putLong(i * Long.BYTES, grafo.getIdExterno(i));
+            secciones[INICIO].putInt(i * Integer.BYTES, arco);
+            for (Via v : grafo.getVecinos(i)) {
+                if (!v.estaActiva()) continue;
+                secciones[DISTANCIAS].putDouble(arco * Double.BYTES, v.getDistancia());
+                secciones[DESTINOS].putInt(arco * Integer.BYTES, v.getIndiceDestino());
+                secciones[CODIGOS_ESTADO].put(arco, codigoEstado(v.getEstado()));
+                arco++;
+            }
+        }
+        secciones[INICIO].putInt(n * Integer.BYTES, arco);
+        indexarIds(secciones[IDS].asLongBuffer(), secciones[ORDEN].asIntBuffer(), n);
+        return arco;
+    }
+
+    private static byte codigoEstado(String estado) {
+        for (byte c = 0; c < ESTADOS.length; c++) {
+            if (ESTADOS[c].equals(estado)) return c;
+        }
+        return 0;
+    }
+
+    // =============================================
+    //  ÍNDICE POR ID (fuera del heap)
+    // =============================================
+
+    /**
+     * Llena orden con 0..n-1 y lo ordena por ID con heapsort en sitio, sin
+     * memoria adicional. Rechaza IDs repetidos.
+     */
+    private static void indexarIds(LongBuffer ids, IntBuffer orden, int n) {
+        for (int i = 0; i < n; i++) orden.put(i, i);
+        for (int i = n / 2 - 1; i >= 0; i--) hundir(ids, orden, i, n);
+        for (int fin = n - 1; fin > 0; fin--) {
+            int mayor = orden.get(0);
+            orden.put(0, orden.get(fin));
+            orden.put(fin, mayor);
+            hundir(ids, orden, 0, fin);
+        }
+        for (int i = 1; i < n; i++) {
+            if (ids.get(orden.get(i)) == ids.get(orden.get(i - 1))) {
+                throw new IllegalArgumentException("Municipio repetido: " + ids.get(orden.get(i)));
+            }
+        }
+    }
+
+    private static void hundir(LongBuffer ids, IntBuffer orden, int i, int n) {
+        int valor = orden.get(i);
+        long clave = ids.get(valor);
+        while (2 * i + 1 < n) {
+            int hijo = 2 * i + 1;
+            if (hijo + 1 < n && ids.get(orden.get(hijo + 1)) > ids.get(orden.get(hijo))) hijo++;
+            if (ids.get(orden.get(hijo)) <= clave) break;
+            orden.put(i, orden.get(hijo));
+            i = hijo;
+        }
+        orden.put(i, valor);
+    }
+
+    /** Búsqueda binaria del ID en orden; -1 si no existe. */
+    private static int buscar(LongBuffer ids, IntBuffer orden, int n, long id) {
+        int bajo = 0, alto = n - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            int indice = orden.get(medio);
+            long actual = ids.get(indice);
+            if (actual < id) bajo = medio + 1;
+            else if (actual > id) alto = medio - 1;
+            else return indice;
+        }
+        return -1;
+    }
+
+    private static int indiceExistente(LongBuffer ids, IntBuffer orden, int n, long id) {
+        int indice = buscar(ids, orden, n, id);
+        if (indice < 0) throw new IllegalArgumentException("Vía hacia un municipio desconocido: " + id);
+        return indice;
+    }
+
+    /**
+     * Fuerza la escritura a disco de las páginas modificadas (solo si está respaldado por archivo).
+     */
+    public void sincronizar() {
+        if (mapeos == null) return;
+        for (MappedByteBuffer mb : mapeos) {
+            if (!mb.isReadOnly()) mb.force();
+        }
+    }
+
+    // =============================================
+    //  ACCESO
+    //  Los arcos de u están en [inicioVecinos(u), finVecinos(u)).
+    //  Se usan accesos absolutos sobre vistas tipadas, por lo que el JIT
+    //  puede acotar los chequeos de límites dentro de cada bucle de vecinos.
+    // =============================================
+
+    public int getNumNodos() {
+        return numNodos;
+    }
+
+    public int getNumArcos() {
+        return numArcos;
+    }
+
+    /** Índice compacto del ID externo, o -1 si no existe. O(log n) sobre la sección orden. */
+    public int getIndice(long id) {
+        return buscar(ids, orden, numNodos, id);
+    }
+
+    public long getIdExterno(int indice) {
+        return ids.get(indice);
+    }
+
+    public int inicioVecinos(int u) {
+        return inicio.get(u);
+    }
+
+    public int finVecinos(int u) {
+        return inicio.get(u + 1);
+    }
+
+    public int destino(int arco) {
+        return destinos.get(arco);
+    }
+
+    public double distancia(int arco) {
+        return distancias.get(arco);
+    }
+
+    public double peso(int arco, boolean penalizar) {
+        double d = distancias.get(arco);
+        return penalizar ? d * FACTORES[estados.get(arco)] : d;
+    }
+
+    public String estado(int arco) {
+        return ESTADOS[estados.get(arco)];
+    }
+}
@@ -7,17 +7,17 @@ import java.util.List;
  * Clase que representa un municipio (nodo) del grafo de Casanare.
  */
 public class Municipio {
-    private int id;
+    private long id;
     private String nombre;
     private List<Via> conexiones; // lista de vías adyacentes
 
-    public Municipio(int id, String nombre) {
+    public Municipio(long id, String nombre) {
         this.id = id;
         this.nombre = nombre;
         this.conexiones = new ArrayList<>();
     }
 
-    public int getId() {
+    public long getId() {
         return id;
     }
 
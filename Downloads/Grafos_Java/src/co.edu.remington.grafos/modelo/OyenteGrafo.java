@@ -0,0 +1,25 @@
+package co.edu.remington.grafos.modelo;
+
+/**
+ * Recibe las mutaciones de GrafoCasanare en el orden en que se aplican.
+ * Lo usan los índices que se actualizan de forma incremental.
+ * Los métodos se invocan dentro del bloqueo del grafo, por lo que deben ser breves.
+ */
+public interface OyenteGrafo {
+
+    default void municipioAgregado(long id, String nombre) {
+    }
+
+    default void viaAgregada(int idVia, long origen, long destino, double distancia, String estado) {
+    }
+
+    default void viaEliminada(int idVia) {
+    }
+
+    default void viaCerrada(int idVia, boolean cerrada) {
+    }
+
+    /** Los índices compactos cambiaron (ver GrafoCasanare.reordenar). */
+    default void indicesReordenados() {
+    }
+}
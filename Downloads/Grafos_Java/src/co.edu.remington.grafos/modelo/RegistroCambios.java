@@ -0,0 +1,503 @@
+package co.edu.remington.grafos.modelo;
+
+import co.edu.remington.grafos.utilidades.MapaLongInt;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Registro de cambios (write-ahead log) que hace persistentes las mutaciones
+ * de GrafoCasanare entre ejecuciones.
+ *
+ * En el directorio del registro viven dos archivos:
+ *   base.snap    instantánea completa del grafo (municipios y vías vivas)
+ *   cambios.log  mutaciones posteriores a la instantánea, solo se agregan al final
+ *
+ * Al abrir se carga la instantánea y se reaplican los cambios. Las escrituras
+ * usan group commit: los oyentes solo encolan el registro en memoria y un hilo
+ * escritor vuelca en lote y hace un único fsync por lote. sincronizar() espera
+ * a que todo lo encolado sea durable.
+ *
+ * Si una escritura falla, el lote vuelve al frente de la cola y se reintenta
+ * cada ESPERA_REINTENTO_MS en la misma posición del log, así no quedan huecos.
+ * Mientras tanto sincronizar() lanza el error; el fallo se olvida cuando un
+ * reintento o una compactación dejan todo en disco.
+ *
+ * compactar() vuelca el grafo actual como nueva instantánea y vacía el log.
+ * Ambos archivos llevan un número de generación: si el proceso cae entre
+ * escribir la instantánea y vaciar el log, el log viejo se ignora al abrir.
+ *
+ * Formato de cada registro: longitud (int), CRC32 (int), contenido. Un
+ * registro incompleto al final (escritura interrumpida) se descarta.
+ */
+public class RegistroCambios implements OyenteGrafo, Closeable {
+
+    private static final int MAGIA_BASE = 0x534E4150; // "SNAP"
+    private static final int MAGIA_LOG = 0x57414C47;  // "WALG"
+    private static final int VERSION = 2;
+    private static final int CABECERA_LOG = 16;
+
+    private static final byte MUNICIPIO = 1;
+    private static final byte VIA = 2;
+    private static final byte ELIMINAR = 3;
+    private static final byte CERRAR = 4;
+
+    /** Tamaño del log a partir del cual el escritor compacta por su cuenta. */
+    private static final long UMBRAL_COMPACTACION = 8L << 20;
+    /** Espera máxima para juntar más registros en un mismo fsync. */
+    private static final long ESPERA_GRUPO_MS = 2;
+    /** Pausa entre reintentos de un lote que no se pudo escribir. */
+    private static final long ESPERA_REINTENTO_MS = 1000;
+
+    private final GrafoCasanare grafo;
+    private final Path archivoBase;
+    private final Path archivoLog;
+    private final FileChannel canal;
+    private final Thread escritor;
+
+    // Protegidos por this: registros encolados y su progreso
+    private ByteArrayOutputStream pendiente = new ByteArrayOutputStream();
+    private long secuenciaEncolada;
+    private long secuenciaDurable;
+    private long generacion;
+    private boolean cerrado;
+    private IOException fallo;
+
+    // Protegidos por canal: posición de escritura y si el log quedó sin cabecera válida
+    private long tamanioLog;
+    private boolean logPorReiniciar;
+
+    private RegistroCambios(GrafoCasanare grafo, Path directorio, FileChannel canal, long generacion, long tamanioLog) {
+        this.grafo = grafo;
+        this.archivoBase = directorio.resolve("base.snap");
+        this.archivoLog = directorio.resolve("cambios.log");
+        this.canal = canal;
+        this.generacion = generacion;
+        this.tamanioLog = tamanioLog;
+        escritor = new Thread(this::escribirLotes, "registro-cambios");
+        escritor.setDaemon(true);
+    }
+
+    // =============================================
+    //  APERTURA Y RECUPERACIÓN
+    // =============================================
+
+    /**
+     * Abre (o crea) el registro del directorio dado sobre un grafo vacío.
+     * Si existe una instantánea se carga y se reaplica el log; si no, se
+     * ejecuta datosIniciales y su resultado se guarda como instantánea base.
+     * A partir de aquí toda mutación del grafo queda registrada.
+     */
+    public static RegistroCambios abrir(GrafoCasanare grafo, Path directorio, Runnable datosIniciales) throws IOException {
+        Files.createDirectories(directorio);
+        Path base = directorio.resolve("base.snap");
+        Path log = directorio.resolve("cambios.log");
+
+        long generacion;
+        if (Files.exists(base)) {
+            MapaLongInt idsVia = new MapaLongInt();
+            generacion = cargarInstantanea(grafo, base, idsVia);
+            reaplicar(grafo, log, generacion, idsVia);
+        } else {
+            datosIniciales.run();
+            generacion = 0;
+        }
+
+        FileChannel canal = FileChannel.open(log, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Los idVia del grafo recién cargado no coinciden con los guardados:
+        // se parte siempre de una instantánea nueva y un log vacío.
+        RegistroCambios r = new RegistroCambios(grafo, directorio, canal, generacion + 1, CABECERA_LOG);
+        r.escribirInstantanea(r.generacion);
+        r.reiniciarLog();
+        grafo.agregarOyente(r);
+        r.escritor.start();
+        return r;
+    }
+
+    private static long cargarInstantanea(GrafoCasanare grafo, Path base, MapaLongInt idsVia) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(base)))) {
+            if (in.readInt() != MAGIA_BASE || in.readInt() != VERSION) {
+                throw new IOException("Instantánea inválida: " + base);
+            }
+            long generacion = in.readLong();
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) grafo.agregarMunicipio(in.readLong(), in.readUTF());
+            int m = in.readInt();
+            for (int e = 0; e < m; e++) {
+                int idVia = in.readInt();
+                int idNuevo = grafo.agregarVia(in.readLong(), in.readLong(), in.readDouble(), in.readUTF());
+                if (in.readBoolean()) grafo.cerrarVia(idNuevo, true);
+                idsVia.put(idVia, idNuevo);
+            }
+            return generacion;
+        }
+    }
+
+    /**
+     * Reaplica los registros del log que pertenezcan a la generación dada.
+     */
+    private static void reaplicar(GrafoCasanare grafo, Path log, long generacion, MapaLongInt idsVia) throws IOException {
+        if (!Files.exists(log) || Files.size(log) < CABECERA_LOG) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(log)))) {
+            if (in.readInt() != MAGIA_LOG || in.readInt() != VERSION) throw new IOException("Log inválido: " + log);
+            if (in.readLong() != generacion) return; // ya incluido en la instantánea
+            CRC32 crc = new CRC32();
+            while (true) {
+                byte[] contenido;
+                try {
+                    int longitud = in.readInt();
+                    int suma = in.readInt();
+                    if (longitud <= 0 || longitud > (1 << 20)) break;
+                    contenido = new byte[longitud];
+                    in.readFully(contenido);
+                    crc.reset();
+                    crc.update(contenido);
+                    if ((int) crc.getValue() != suma) break;
+                } catch (EOFException e) {
+                    break; // cola incompleta de una escritura interrumpida
+                }
+                aplicar(grafo, new DataInputStream(new ByteArrayInputStream(contenido)), idsVia);
+            }
+        }
+    }
+
+    private static void aplicar(GrafoCasanare grafo, DataInputStream in, MapaLongInt idsVia) throws IOException {
+        switch (in.readByte()) {
+            case MUNICIPIO:
+                grafo.agregarMunicipio(in.readLong(), in.readUTF());
+                break;
+            case VIA: {
+                int idVia = in.readInt();
+                int idNuevo = grafo.agregarVia(in.readLong(), in.readLong(), in.readDouble(), in.readUTF());
+                if (idNuevo >= 0) idsVia.put(idVia, idNuevo);
+                break;
+            }
+            case ELIMINAR:
+                grafo.eliminarVia(idsVia.get(in.readInt()));
+                break;
+            case CERRAR: {
+                int idVia = idsVia.get(in.readInt());
+                grafo.cerrarVia(idVia, in.readBoolean());
+                break;
+            }
+            default:
+                throw new IOException("Tipo de registro desconocido");
+        }
+    }
+
+    // =============================================
+    //  OYENTE: ENCOLAR MUTACIONES
+    // =============================================
+
+    @Override
+    public void municipioAgregado(long id, String nombre) {
+        encolar(out -> {
+            out.writeByte(MUNICIPIO);
+            out.writeLong(id);
+            out.writeUTF(nombre);
+        });
+    }
+
+    @Override
+    public void viaAgregada(int idVia, long origen, long destino, double distancia, String estado) {
+        encolar(out -> {
+            out.writeByte(VIA);
+            out.writeInt(idVia);
+            out.writeLong(origen);
+            out.writeLong(destino);
+            out.writeDouble(distancia);
+            out.writeUTF(estado);
+        });
+    }
+
+    @Override
+    public void viaEliminada(int idVia) {
+        encolar(out -> {
+            out.writeByte(ELIMINAR);
+            out.writeInt(idVia);
+        });
+    }
+
+    @Override
+    public void viaCerrada(int idVia, boolean cerrada) {
+        encolar(out -> {
+            out.writeByte(CERRAR);
+            out.writeInt(idVia);
+            out.writeBoolean(cerrada);
+        });
+    }
+
+    private interface Contenido {
+        void escribir(DataOutputStream out) throws IOException;
+    }
+
+    private synchronized void encolar(Contenido contenido) {
+        if (cerrado) return;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+            contenido.escribir(new DataOutputStream(bytes));
+            byte[] datos = bytes.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(datos);
+            DataOutputStream out = new DataOutputStream(pendiente);
+            out.writeInt(datos.length);
+            out.writeInt((int) crc.getValue());
+            out.write(datos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // ByteArrayOutputStream no lanza
+        }
+        secuenciaEncolada++;
+        notifyAll();
+    }
+
+    // =============================================
+    //  ESCRITOR: GROUP COMMIT
+    // =============================================
+
+    private void escribirLotes() {
+        while (true) {
+            byte[] lote;
+            long hasta, gen;
+            synchronized (this) {
+                try {
+                    while (pendiente.size() == 0 && !cerrado) wait();
+                    if (pendiente.size() == 0) return;
+                    // Se da un margen corto para que más mutaciones compartan el fsync
+                    esperarHasta(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ESPERA_GRUPO_MS));
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (pendiente.size() == 0) continue; // lo absorbió una compactación
+                lote = pendiente.toByteArray();
+                pendiente = new ByteArrayOutputStream();
+                hasta = secuenciaEncolada;
+                gen = generacion;
+            }
+
+            boolean compactarAhora = false;
+            try {
+                synchronized (canal) {
+                    // Si hubo compactación entre tanto, el lote ya está en la instantánea
+                    if (gen == getGeneracion()) {
+                        if (logPorReiniciar) reiniciarLog();
+                        // tamanioLog avanza solo si todo salió bien: un reintento reescribe encima
+                        int escritos = escribirCompleto(ByteBuffer.wrap(lote), tamanioLog);
+                        canal.force(false);
+                        tamanioLog += escritos;
+                        compactarAhora = tamanioLog > UMBRAL_COMPACTACION;
+                    }
+                }
+                marcarDurable(hasta);
+            } catch (IOException e) {
+                if (!reencolar(lote, gen, e)) return;
+                continue;
+            }
+            if (compactarAhora) {
+                try {
+                    compactar();
+                } catch (IOException e) {
+                    // El lote ya es durable; el log sigue creciendo hasta la próxima compactación
+                    System.err.println("No se pudo compactar " + archivoLog + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Devuelve el lote fallido al frente de la cola y espera antes de
+     * reintentarlo. Si ya hubo una compactación, el lote está en la
+     * instantánea y se descarta.
+     *
+     * @return false si el registro se cerró y hay que dejar de reintentar
+     */
+    private synchronized boolean reencolar(byte[] lote, long gen, IOException error) {
+        fallo = error;
+        notifyAll();
+        if (gen == generacion) {
+            ByteArrayOutputStream cola = new ByteArrayOutputStream(lote.length + pendiente.size());
+            cola.write(lote, 0, lote.length);
+            cola.write(pendiente.toByteArray(), 0, pendiente.size());
+            pendiente = cola;
+        }
+        if (cerrado) return false;
+        try {
+            esperarHasta(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ESPERA_REINTENTO_MS));
+        } catch (InterruptedException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Espera sobre el monitor hasta el instante dado (System.nanoTime) o hasta
+     * que se cierre el registro. Cada encolar despierta al escritor, así que se
+     * vuelve a esperar lo que falte en lugar de salir con el primer aviso.
+     */
+    private void esperarHasta(long limite) throws InterruptedException {
+        for (long resta = limite - System.nanoTime(); resta > 0 && !cerrado; resta = limite - System.nanoTime()) {
+            TimeUnit.NANOSECONDS.timedWait(this, resta);
+        }
+    }
+
+    private int escribirCompleto(ByteBuffer buf, long posicion) throws IOException {
+        int escritos = 0;
+        while (buf.hasRemaining()) escritos += canal.write(buf, posicion + escritos);
+        return escritos;
+    }
+
+    private synchronized long getGeneracion() {
+        return generacion;
+    }
+
+    /** Todo lo encolado hasta la secuencia dada está en disco; olvida un fallo anterior. */
+    private synchronized void marcarDurable(long hasta) {
+        fallo = null;
+        secuenciaDurable = Math.max(secuenciaDurable, hasta);
+        notifyAll();
+    }
+
+    /**
+     * Bloquea hasta que todas las mutaciones registradas hasta ahora estén en
+     * disco. Lanza el último error de escritura si todavía no se pudieron
+     * guardar (el escritor sigue reintentando).
+     */
+    public synchronized void sincronizar() throws IOException {
+        long objetivo = secuenciaEncolada;
+        try {
+            while (secuenciaDurable < objetivo && fallo == null) wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando el registro de cambios");
+        }
+        if (secuenciaDurable < objetivo) throw fallo;
+    }
+
+    // =============================================
+    //  COMPACTACIÓN
+    // =============================================
+
+    /**
+     * Escribe el estado actual como nueva instantánea y vacía el log. Se
+     * bloquea el grafo mientras tanto para que ninguna mutación quede fuera
+     * de ambos. Si la instantánea no se puede escribir no cambia nada: el log
+     * viejo y lo pendiente siguen valiendo. Una vez renombrada, todo lo
+     * encolado es durable aunque falle el reinicio del log; el escritor lo
+     * reinicia antes de su próximo lote.
+     */
+    public void compactar() throws IOException {
+        synchronized (grafo) {
+            long hasta, nueva;
+            synchronized (this) {
+                hasta = secuenciaEncolada;
+                nueva = generacion + 1;
+            }
+            synchronized (canal) {
+                escribirInstantanea(nueva);
+                synchronized (this) {
+                    generacion = nueva;
+                    pendiente = new ByteArrayOutputStream(); // incluido en la instantánea
+                }
+                marcarDurable(hasta);
+                reiniciarLog();
+            }
+        }
+    }
+
+    // Escritura atómica: archivo temporal + fsync + renombrado
+    private void escribirInstantanea(long generacionNueva) throws IOException {
+        Path temporal = archivoBase.resolveSibling("base.snap.tmp");
+        try (FileOutputStream fos = new FileOutputStream(temporal.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+            out.writeInt(MAGIA_BASE);
+            out.writeInt(VERSION);
+            out.writeLong(generacionNueva);
+            out.writeInt(grafo.getNumNodos());
+            for (int i = 0; i < grafo.getNumNodos(); i++) {
+                long id = grafo.getIdExterno(i);
+                out.writeLong(id);
+                out.writeUTF(grafo.getNombre(id));
+            }
+            out.writeInt(grafo.getNumVias());
+            for (int idVia = 0; idVia < grafo.getLimiteIdVia(); idVia++) {
+                Via v = grafo.getVia(idVia);
+                if (v == null || v.isEliminada()) continue;
+                out.writeInt(idVia);
+                out.writeLong(v.getInversa().getDestino());
+                out.writeLong(v.getDestino());
+                out.writeDouble(v.getDistancia());
+                out.writeUTF(v.getEstado());
+                out.writeBoolean(v.isCerrada());
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(temporal, archivoBase, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sincronizarDirectorio(archivoBase.getParent());
+    }
+
+    /**
+     * fsync del directorio para que el renombrado (y la creación del log)
+     * sobreviva a un corte de energía. Algunos sistemas, como Windows, no
+     * permiten abrir un directorio como canal; ahí se omite.
+     */
+    private static void sincronizarDirectorio(Path directorio) throws IOException {
+        FileChannel dir;
+        try {
+            dir = FileChannel.open(directorio, StandardOpenOption.READ);
+        } catch (IOException | UnsupportedOperationException e) {
+            return;
+        }
+        try (dir) {
+            dir.force(true);
+        }
+    }
+
+    private void reiniciarLog() throws IOException {
+        logPorReiniciar = true;
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA_LOG);
+        cabecera.putInt(MAGIA_LOG).putInt(VERSION).putLong(getGeneracion()).flip();
+        canal.truncate(0);
+        escribirCompleto(cabecera, 0);
+        canal.force(true);
+        tamanioLog = CABECERA_LOG;
+        logPorReiniciar = false;
+    }
+
+    public long getTamanioLog() {
+        synchronized (canal) {
+            return tamanioLog;
+        }
+    }
+
+    public Path getArchivoLog() {
+        return archivoLog;
+    }
+
+    /**
+     * Deja de registrar, vuelca lo pendiente y cierra el archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        grafo.quitarOyente(this);
+        synchronized (this) {
+            cerrado = true;
+            notifyAll();
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (canal) {
+            canal.close();
+        }
+        synchronized (this) {
+            if (fallo != null) throw fallo;
+        }
+    }
+}
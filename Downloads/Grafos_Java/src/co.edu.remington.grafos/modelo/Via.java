@@ -3,22 +3,42 @@ package co.edu.remington.grafos.modelo;
 /**
  * Clase que representa una arista (vía) del grafo de municipios de Casanare.
  * Cada vía conecta dos municipios con una distancia y un estado de la vía.
+ *
+ * Una vía no dirigida se guarda como dos mitades (una por sentido) que comparten
+ * el mismo idVia y se referencian mutuamente. Eliminar o cerrar una vía solo
+ * marca ambas mitades; los recorridos las saltan con estaActiva().
  */
 public class Via {
-    private int destino;
-    private double distancia; // en kilómetros
-    private String estado;    // "Bueno", "Regular", "Malo"
+    private int idVia;
+    private long destino;      // ID externo del destino
+    private int indiceDestino; // índice compacto del destino dentro del grafo
+    private double distancia;  // en kilómetros
+    private String estado;     // "Bueno", "Regular", "Malo"
+    private Via inversa;       // mitad en sentido contrario
 
-    public Via(int destino, double distancia, String estado) {
+    private volatile boolean eliminada; // lápida: se purga en la compactación
+    private volatile boolean cerrada;   // cierre temporal, reversible
+
+    public Via(int idVia, long destino, int indiceDestino, double distancia, String estado) {
+        this.idVia = idVia;
         this.destino = destino;
+        this.indiceDestino = indiceDestino;
         this.distancia = distancia;
         this.estado = estado;
     }
 
-    public int getDestino() {
+    public int getIdVia() {
+        return idVia;
+    }
+
+    public long getDestino() {
         return destino;
     }
 
+    public int getIndiceDestino() {
+        return indiceDestino;
+    }
+
     public double getDistancia() {
         return distancia;
     }
@@ -27,15 +47,62 @@ public class Via {
         return estado;
     }
 
+    public Via getInversa() {
+        return inversa;
+    }
+
+    public boolean isEliminada() {
+        return eliminada;
+    }
+
+    public boolean isCerrada() {
+        return cerrada;
+    }
+
+    /**
+     * true si la vía puede recorrerse (no eliminada ni cerrada).
+     */
+    public boolean estaActiva() {
+        return !eliminada && !cerrada;
+    }
+
+    // Mutadores usados solo por GrafoCasanare; afectan ambas mitades
+
+    static void enlazar(Via ida, Via vuelta) {
+        ida.inversa = vuelta;
+        vuelta.inversa = ida;
+    }
+
+    void setIndiceDestino(int indiceDestino) {
+        this.indiceDestino = indiceDestino;
+    }
+
+    void marcarEliminada() {
+        eliminada = true;
+        inversa.eliminada = true;
+    }
+
+    void setCerrada(boolean cerrada) {
+        this.cerrada = cerrada;
+        inversa.cerrada = cerrada;
+    }
+
     /**
      * Retorna la distancia penalizada según el estado de la vía.
      * Malo: x1.5 | Regular: x1.2 | Bueno: x1.0
      */
     public double getDistanciaPenalizada() {
+        return distancia * factorPenalizacion(estado);
+    }
+
+    /**
+     * Factor multiplicativo aplicado a la distancia según el estado de la vía.
+     */
+    public static double factorPenalizacion(String estado) {
         switch (estado) {
-            case "Malo":    return distancia * 1.5;
-            case "Regular": return distancia * 1.2;
-            default:        return distancia;
+            case "Malo":    return 1.5;
+            case "Regular": return 1.2;
+            default:        return 1.0;
         }
     }
 
@@ -1,11 +1,21 @@
 package co.edu.remington.grafos.principal;
 
+import co.edu.remington.grafos.algoritmos.ArbolExpansionMinima;
+import co.edu.remington.grafos.algoritmos.ComponentesConexas;
 import co.edu.remington.grafos.algoritmos.Dijkstra;
+import co.edu.remington.grafos.algoritmos.DijkstraMultiOrigen;
+import co.edu.remington.grafos.algoritmos.IndiceBloquesCorte;
+import co.edu.remington.grafos.algoritmos.Intermediacion;
+import co.edu.remington.grafos.algoritmos.Isocrona;
 import co.edu.remington.grafos.algoritmos.RecorridoBFS;
 import co.edu.remington.grafos.algoritmos.RecorridoDFS;
 import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.RegistroCambios;
 import co.edu.remington.grafos.utilidades.MatrizAdyacencia;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
@@ -20,6 +30,8 @@ public class Main {
 
     static GrafoCasanare grafo = new GrafoCasanare();
     static Scanner sc = new Scanner(System.in);
+    static IndiceBloquesCorte indiceFallas; // se crea en la primera consulta y se mantiene al día solo
+    static RegistroCambios registro;        // null = los cambios solo viven en memoria
 
     public static void main(String[] args) {
 
@@ -28,8 +40,23 @@ public class Main {
         System.out.println("║   Universidad Remington — Estructuras de Datos       ║");
         System.out.println("╚══════════════════════════════════════════════════════╝");
 
-        // Inicializar datos del taller
-        grafo.inicializarDatosCasanare();
+        // Inicializar datos del taller; con --registro=<dir> (o -Dgrafos.registro=<dir>)
+        // se recuperan los cambios de ejecuciones anteriores
+        String dirRegistro = System.getProperty("grafos.registro");
+        for (String arg : args) {
+            if (arg.startsWith("--registro=")) dirRegistro = arg.substring("--registro=".length());
+        }
+        if (dirRegistro == null) {
+            grafo.inicializarDatosCasanare();
+        } else {
+            try {
+                registro = RegistroCambios.abrir(grafo, Path.of(dirRegistro), grafo::inicializarDatosCasanare);
+                System.out.println("✓ Registro de cambios activo en " + dirRegistro);
+            } catch (IOException e) {
+                System.out.println("No se pudo abrir el registro de cambios: " + e.getMessage());
+                if (grafo.getNumNodos() == 0) grafo.inicializarDatosCasanare();
+            }
+        }
         System.out.println("\n✓ Red vial de Casanare cargada correctamente.\n");
 
         // Demostración automática de todas las partes del taller
@@ -103,12 +130,12 @@ public class Main {
 
         // Municipios puente
         System.out.println("\n[Municipios Puente (puntos críticos de articulación)]");
-        List<Integer> puentes = grafo.encontrarMunicipiosPuente();
+        List<Long> puentes = grafo.encontrarMunicipiosPuente();
         if (puentes.isEmpty()) {
             System.out.println("  No se encontraron municipios puente.");
         } else {
             System.out.println("  Los siguientes municipios son críticos:");
-            for (int id : puentes) {
+            for (long id : puentes) {
                 System.out.println("    ► " + grafo.getNombre(id) +
                         " (ID: " + id + ") — su eliminación desconectaría la red.");
             }
@@ -137,6 +164,15 @@ public class Main {
             System.out.println("║  9. Identificar municipios puente            ║");
             System.out.println("║ 10. Agregar nuevo municipio                  ║");
             System.out.println("║ 11. Agregar nueva vía                        ║");
+            System.out.println("║ 12. Cerrar / reabrir vía                     ║");
+            System.out.println("║ 13. Eliminar vía                             ║");
+            System.out.println("║ 14. Municipios dentro de un radio            ║");
+            System.out.println("║ 15. Asignar a la instalación más cercana     ║");
+            System.out.println("║ 16. Ranking de criticidad (intermediación)   ║");
+            System.out.println("║ 17. Simular falla de un municipio            ║");
+            System.out.println("║ 18. Red mínima de mantenimiento (MST)        ║");
+            if (registro != null)
+                System.out.println("║ 19. Compactar registro de cambios            ║");
             System.out.println("║  0. Salir                                    ║");
             System.out.println("╚══════════════════════════════════════════════╝");
             System.out.print("Seleccione una opción: ");
@@ -159,7 +195,16 @@ public class Main {
                 case 9:  mostrarPuentes();                 break;
                 case 10: agregarMunicipio();               break;
                 case 11: agregarVia();                     break;
+                case 12: cerrarVia();                      break;
+                case 13: eliminarVia();                    break;
+                case 14: menuIsocrona();                   break;
+                case 15: menuInstalaciones();              break;
+                case 16: menuIntermediacion();             break;
+                case 17: menuFallaMunicipio();             break;
+                case 18: menuArbolMinimo();                break;
+                case 19: compactarRegistro();              break;
                 case 0:
+                    cerrarRegistro();
                     System.out.println("\n¡Hasta luego! Sistema de Rutas Casanare finalizado.");
                     break;
                 default:
@@ -171,7 +216,7 @@ public class Main {
     // ---- Opción 1 ----
     static void mostrarMunicipios() {
         System.out.println("\n=== MUNICIPIOS REGISTRADOS ===");
-        for (int id : grafo.getIds()) {
+        for (long id : grafo.getIds()) {
             System.out.printf("  [%2d] %s%n", id, grafo.getNombre(id));
         }
         System.out.println("Total: " + grafo.getMunicipios().size() + " municipios\n");
@@ -181,7 +226,7 @@ public class Main {
     static void menuBFS() {
         mostrarMunicipios();
         System.out.print("Ingrese el ID del municipio de inicio: ");
-        int origen = leerEntero();
+        long origen = leerId();
         if (!grafo.getMunicipios().containsKey(origen)) {
             System.out.println("ID inválido.");
             return;
@@ -193,7 +238,7 @@ public class Main {
     static void menuDFS() {
         mostrarMunicipios();
         System.out.print("Ingrese el ID del municipio de inicio: ");
-        int origen = leerEntero();
+        long origen = leerId();
         if (!grafo.getMunicipios().containsKey(origen)) {
             System.out.println("ID inválido.");
             return;
@@ -205,9 +250,9 @@ public class Main {
     static void menuRutaEspecifica() {
         mostrarMunicipios();
         System.out.print("ID del municipio origen: ");
-        int origen = leerEntero();
+        long origen = leerId();
         System.out.print("ID del municipio destino: ");
-        int destino = leerEntero();
+        long destino = leerId();
 
         if (!grafo.getMunicipios().containsKey(origen) || !grafo.getMunicipios().containsKey(destino)) {
             System.out.println("ID inválido.");
@@ -223,7 +268,7 @@ public class Main {
     static void menuTodasLasRutas() {
         mostrarMunicipios();
         System.out.print("ID del municipio origen: ");
-        int origen = leerEntero();
+        long origen = leerId();
         if (!grafo.getMunicipios().containsKey(origen)) {
             System.out.println("ID inválido.");
             return;
@@ -237,9 +282,9 @@ public class Main {
     static void menuCompararRutas() {
         mostrarMunicipios();
         System.out.print("ID del municipio origen: ");
-        int origen = leerEntero();
+        long origen = leerId();
         System.out.print("ID del municipio destino: ");
-        int destino = leerEntero();
+        long destino = leerId();
 
         if (!grafo.getMunicipios().containsKey(origen) || !grafo.getMunicipios().containsKey(destino)) {
             System.out.println("ID inválido.");
@@ -250,23 +295,25 @@ public class Main {
 
     // ---- Opción 8 ----
     static void verificarConectividad() {
-        boolean conexo = grafo.esConexo();
+        ComponentesConexas componentes = new ComponentesConexas(grafo);
+        ComponentesConexas.Resultado resultado = componentes.calcular();
         System.out.println("\n[Conectividad]");
-        if (conexo) {
+        if (resultado.esConexo()) {
             System.out.println("  ✓ El grafo ES CONEXO. Todos los municipios están interconectados.");
         } else {
             System.out.println("  ✗ El grafo NO es conexo. Existen municipios sin conexión.");
+            componentes.mostrar(resultado);
         }
     }
 
     // ---- Opción 9 ----
     static void mostrarPuentes() {
-        List<Integer> puentes = grafo.encontrarMunicipiosPuente();
+        List<Long> puentes = grafo.encontrarMunicipiosPuente();
         System.out.println("\n[Municipios Puente]");
         if (puentes.isEmpty()) {
             System.out.println("  No se encontraron puntos críticos de articulación.");
         } else {
-            for (int id : puentes) {
+            for (long id : puentes) {
                 System.out.println("  ► " + grafo.getNombre(id) + " (ID: " + id + ")");
             }
         }
@@ -275,7 +322,7 @@ public class Main {
     // ---- Opción 10 ----
     static void agregarMunicipio() {
         System.out.print("Ingrese el ID del nuevo municipio: ");
-        int id = leerEntero();
+        long id = leerId();
         if (grafo.getMunicipios().containsKey(id)) {
             System.out.println("Ya existe un municipio con ese ID.");
             return;
@@ -283,6 +330,7 @@ public class Main {
         System.out.print("Ingrese el nombre del municipio: ");
         String nombre = sc.nextLine().trim();
         grafo.agregarMunicipio(id, nombre);
+        if (!guardarCambio()) return;
         System.out.println("✓ Municipio '" + nombre + "' agregado con ID " + id);
     }
 
@@ -290,9 +338,9 @@ public class Main {
     static void agregarVia() {
         mostrarMunicipios();
         System.out.print("ID del municipio origen: ");
-        int origen = leerEntero();
+        long origen = leerId();
         System.out.print("ID del municipio destino: ");
-        int destino = leerEntero();
+        long destino = leerId();
         System.out.print("Distancia en km: ");
         double dist;
         try {
@@ -307,15 +355,173 @@ public class Main {
             System.out.println("Estado inválido. Use: Bueno, Regular o Malo.");
             return;
         }
-        grafo.agregarVia(origen, destino, dist, estado);
+        if (grafo.agregarVia(origen, destino, dist, estado) < 0 || !guardarCambio()) return;
         System.out.printf("✓ Vía agregada: %s <-> %s (%.1f km, %s)%n",
                 grafo.getNombre(origen), grafo.getNombre(destino), dist, estado);
     }
 
+    // ---- Opción 12 ----
+    static void cerrarVia() {
+        mostrarMunicipios();
+        System.out.print("ID del municipio origen: ");
+        long origen = leerId();
+        System.out.print("ID del municipio destino: ");
+        long destino = leerId();
+        System.out.print("¿Cerrar (c) o reabrir (r) la vía?: ");
+        boolean cerrar = !sc.nextLine().trim().equalsIgnoreCase("r");
+        int afectadas = grafo.cerrarVia(origen, destino, cerrar);
+        if (afectadas == 0) {
+            System.out.println("No existe una vía directa entre esos municipios.");
+            return;
+        }
+        if (!guardarCambio()) return;
+        System.out.printf("✓ Vía %s <-> %s %s%n", grafo.getNombre(origen),
+                grafo.getNombre(destino), cerrar ? "cerrada" : "reabierta");
+    }
+
+    // ---- Opción 13 ----
+    static void eliminarVia() {
+        mostrarMunicipios();
+        System.out.print("ID del municipio origen: ");
+        long origen = leerId();
+        System.out.print("ID del municipio destino: ");
+        long destino = leerId();
+        int eliminadas = grafo.eliminarVia(origen, destino);
+        if (eliminadas == 0) {
+            System.out.println("No existe una vía directa entre esos municipios.");
+            return;
+        }
+        if (!guardarCambio()) return;
+        System.out.printf("✓ Vía eliminada: %s <-> %s%n",
+                grafo.getNombre(origen), grafo.getNombre(destino));
+    }
+
+    // ---- Opción 14 ----
+    static void menuIsocrona() {
+        mostrarMunicipios();
+        System.out.print("ID del municipio centro: ");
+        long centro = leerId();
+        if (!grafo.getMunicipios().containsKey(centro)) {
+            System.out.println("ID inválido.");
+            return;
+        }
+        System.out.print("Radio en km: ");
+        double radio;
+        try {
+            radio = Double.parseDouble(sc.nextLine().trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Radio inválido.");
+            return;
+        }
+        System.out.print("¿Aplicar penalización por estado de vías? (s/n): ");
+        boolean pen = sc.nextLine().trim().equalsIgnoreCase("s");
+        new Isocrona(grafo).mostrar(centro, radio, pen);
+    }
+
+    // ---- Opción 15 ----
+    static void menuInstalaciones() {
+        mostrarMunicipios();
+        System.out.print("IDs de las instalaciones separados por coma: ");
+        List<Long> instalaciones = new ArrayList<>();
+        for (String parte : sc.nextLine().split(",")) {
+            try {
+                long id = Long.parseLong(parte.trim());
+                if (grafo.getMunicipios().containsKey(id)) instalaciones.add(id);
+            } catch (NumberFormatException e) {
+                // se ignora la entrada inválida
+            }
+        }
+        if (instalaciones.isEmpty()) {
+            System.out.println("No se ingresaron instalaciones válidas.");
+            return;
+        }
+        System.out.print("¿Aplicar penalización por estado de vías? (s/n): ");
+        boolean pen = sc.nextLine().trim().equalsIgnoreCase("s");
+        new DijkstraMultiOrigen(grafo).mostrarAsignacion(instalaciones, pen);
+    }
+
+    // ---- Opción 16 ----
+    static void menuIntermediacion() {
+        System.out.print("¿Aplicar penalización por estado de vías? (s/n): ");
+        boolean pen = sc.nextLine().trim().equalsIgnoreCase("s");
+        new Intermediacion(grafo).mostrarRanking(10, pen);
+    }
+
+    // ---- Opción 17 ----
+    static void menuFallaMunicipio() {
+        mostrarMunicipios();
+        System.out.print("ID del municipio que falla: ");
+        long id = leerId();
+        if (!grafo.getMunicipios().containsKey(id)) {
+            System.out.println("ID inválido.");
+            return;
+        }
+        if (indiceFallas == null) indiceFallas = new IndiceBloquesCorte(grafo);
+
+        System.out.println("\n[Falla de " + grafo.getNombre(id) + "]");
+        List<Long> aislados = indiceFallas.municipiosAisladosSin(id);
+        if (aislados.isEmpty()) {
+            System.out.println("  La red sigue conectada sin este municipio.");
+        } else {
+            System.out.println("  Quedarían incomunicados:");
+            for (long a : aislados) {
+                System.out.println("    ► " + grafo.getNombre(a) + " (ID: " + a + ")");
+            }
+        }
+    }
+
+    // ---- Opción 18 ----
+    static void menuArbolMinimo() {
+        System.out.print("¿Ponderar por distancia penalizada? (s/n): ");
+        boolean pen = sc.nextLine().trim().equalsIgnoreCase("s");
+        new ArbolExpansionMinima(grafo).mostrar(pen);
+    }
+
+    // ---- Opción 19 ----
+    static void compactarRegistro() {
+        if (registro == null) {
+            System.out.println("Opción inválida. Intente de nuevo.");
+            return;
+        }
+        long antes = registro.getTamanioLog();
+        try {
+            registro.compactar();
+            System.out.printf("✓ Registro compactado (%d bytes de cambios integrados a la instantánea)%n", antes);
+        } catch (IOException e) {
+            System.out.println("Error al compactar el registro: " + e.getMessage());
+        }
+    }
+
+    static void cerrarRegistro() {
+        if (registro == null) return;
+        try {
+            registro.close();
+        } catch (IOException e) {
+            System.out.println("Error al cerrar el registro de cambios: " + e.getMessage());
+        }
+    }
+
     // ---- Utilidad ----
-    static int leerEntero() {
+
+    /**
+     * Con registro activo, espera a que el último cambio esté en disco antes
+     * de confirmarlo al usuario.
+     * @return false si el registro no pudo guardarlo
+     */
+    static boolean guardarCambio() {
+        if (registro == null) return true;
+        try {
+            registro.sincronizar();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error: el cambio no quedó guardado en el registro: " + e.getMessage());
+            return false;
+        }
+    }
+
+    static long leerId() {
         try {
-            return Integer.parseInt(sc.nextLine().trim());
+            return Long.parseLong(sc.nextLine().trim());
         } catch (NumberFormatException e) {
             return -1;
         }
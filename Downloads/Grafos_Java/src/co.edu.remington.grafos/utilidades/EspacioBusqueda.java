@@ -0,0 +1,123 @@
+package co.edu.remington.grafos.utilidades;
+
+import java.util.Arrays;
+
+/**
+ * Espacio de trabajo reutilizable para búsquedas tipo Dijkstra sobre índices
+ * compactos 0..capacidad-1: distancias, anteriores, marca de cerrado y un
+ * montículo indexado.
+ *
+ * En lugar de rellenar los arreglos en cada consulta, cada entrada lleva el
+ * sello de la época en que se escribió; reiniciar() solo incrementa la época,
+ * así que una consulta cuesta en proporción a los nodos que toca y no al
+ * tamaño del grafo.
+ *
+ * No es seguro entre hilos: cada espacio lo usa un solo hilo a la vez. Para
+ * consultas concurrentes se obtienen de un PoolEspacios y se devuelven con
+ * close() (sirve con try-with-resources).
+ */
+public class EspacioBusqueda implements AutoCloseable {
+
+    private final double[] dist;
+    private final int[] anterior;
+    private final int[] sello;          // época en que se escribió dist/anterior
+    private final int[] selloCerrado;   // época en que el nodo quedó definitivo
+    private int epoca;
+    private final MonticuloIndexado monticulo;
+    private int[] tocados;
+    private int numTocados;
+    private final PoolEspacios pool;    // null = espacio suelto
+
+    public EspacioBusqueda(int capacidad) {
+        this(capacidad, null);
+    }
+
+    EspacioBusqueda(int capacidad, PoolEspacios pool) {
+        dist = new double[capacidad];
+        anterior = new int[capacidad];
+        sello = new int[capacidad];
+        selloCerrado = new int[capacidad];
+        monticulo = new MonticuloIndexado(capacidad);
+        tocados = new int[Math.min(capacidad, 64)];
+        epoca = 1;
+        this.pool = pool;
+    }
+
+    public int getCapacidad() {
+        return dist.length;
+    }
+
+    /**
+     * Deja el espacio vacío para una nueva consulta en O(1) (más lo que
+     * quedara en el montículo si la consulta anterior terminó antes de vaciarlo).
+     */
+    public void reiniciar() {
+        monticulo.limpiar();
+        numTocados = 0;
+        if (++epoca == Integer.MAX_VALUE) {
+            // Desborde tras ~2^31 consultas: se limpian los sellos una sola vez
+            Arrays.fill(sello, 0);
+            Arrays.fill(selloCerrado, 0);
+            epoca = 1;
+        }
+    }
+
+    // =============================================
+    //  DISTANCIAS Y ANTERIORES
+    // =============================================
+
+    /** Distancia tentativa del nodo, o Double.MAX_VALUE si no se ha alcanzado. */
+    public double getDist(int v) {
+        return sello[v] == epoca ? dist[v] : Double.MAX_VALUE;
+    }
+
+    /** Nodo anterior en el mejor camino conocido, o -1. */
+    public int getAnterior(int v) {
+        return sello[v] == epoca ? anterior[v] : -1;
+    }
+
+    public boolean fueAlcanzado(int v) {
+        return sello[v] == epoca;
+    }
+
+    /** Fija la distancia tentativa y el anterior del nodo. */
+    public void actualizar(int v, double d, int ant) {
+        if (sello[v] != epoca) {
+            sello[v] = epoca;
+            if (numTocados == tocados.length) {
+                tocados = Arrays.copyOf(tocados, Math.min(dist.length, tocados.length * 2));
+            }
+            tocados[numTocados++] = v;
+        }
+        dist[v] = d;
+        anterior[v] = ant;
+    }
+
+    public boolean estaCerrado(int v) {
+        return selloCerrado[v] == epoca;
+    }
+
+    public void cerrar(int v) {
+        selloCerrado[v] = epoca;
+    }
+
+    /** Número de nodos alcanzados en la consulta actual. */
+    public int getNumTocados() {
+        return numTocados;
+    }
+
+    /** i-ésimo nodo alcanzado, en orden de primer contacto. */
+    public int getTocado(int i) {
+        return tocados[i];
+    }
+
+    public MonticuloIndexado getMonticulo() {
+        return monticulo;
+    }
+
+    /** Devuelve el espacio a su pool (no hace nada si es un espacio suelto). */
+    @Override
+    public void close() {
+        if (pool != null) pool.devolver(this);
+    }
+}
@@ -0,0 +1,108 @@
+package co.edu.remington.grafos.utilidades;
+
+import java.util.Arrays;
+
+/**
+ * Mapa hash primitivo de claves long a valores int (direccionamiento abierto
+ * con sondeo lineal). Evita el boxing de HashMap&lt;Long, Integer&gt; cuando se
+ * traducen identificadores externos (códigos DANE, nodos OSM) a índices compactos.
+ */
+public class MapaLongInt {
+
+    /** Valor retornado por get() cuando la clave no existe. */
+    public static final int AUSENTE = -1;
+
+    private static final float FACTOR_CARGA = 0.5f;
+
+    private long[] claves;
+    private int[] valores;      // valor + 1; 0 = casilla vacía
+    private int tamanio;
+    private int mascara;
+
+    public MapaLongInt() {
+        this(16);
+    }
+
+    public MapaLongInt(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(4, (int) (capacidadEsperada / FACTOR_CARGA)) - 1) << 1;
+        claves = new long[capacidad];
+        valores = new int[capacidad];
+        mascara = capacidad - 1;
+    }
+
+    // =============================================
+    //  OPERACIONES
+    // =============================================
+
+    /**
+     * Asocia la clave con el valor (valor debe ser >= 0).
+     * @return valor anterior o AUSENTE si la clave era nueva
+     */
+    public int put(long clave, int valor) {
+        if (valor < 0) throw new IllegalArgumentException("El valor debe ser no negativo: " + valor);
+        int pos = buscarCasilla(clave);
+        if (valores[pos] != 0) {
+            int anterior = valores[pos] - 1;
+            valores[pos] = valor + 1;
+            return anterior;
+        }
+        claves[pos] = clave;
+        valores[pos] = valor + 1;
+        if (++tamanio > claves.length * FACTOR_CARGA) redimensionar();
+        return AUSENTE;
+    }
+
+    public int get(long clave) {
+        return valores[buscarCasilla(clave)] - 1;
+    }
+
+    public boolean containsKey(long clave) {
+        return valores[buscarCasilla(clave)] != 0;
+    }
+
+    public int size() {
+        return tamanio;
+    }
+
+    public void clear() {
+        Arrays.fill(valores, 0);
+        tamanio = 0;
+    }
+
+    // =============================================
+    //  INTERNOS
+    // =============================================
+
+    private int buscarCasilla(long clave) {
+        int pos = mezclar(clave) & mascara;
+        while (valores[pos] != 0 && claves[pos] != clave) {
+            pos = (pos + 1) & mascara;
+        }
+        return pos;
+    }
+
+    private void redimensionar() {
+        long[] viejasClaves = claves;
+        int[] viejosValores = valores;
+        claves = new long[viejasClaves.length * 2];
+        valores = new int[viejosValores.length * 2];
+        mascara = claves.length - 1;
+        for (int i = 0; i < viejasClaves.length; i++) {
+            if (viejosValores[i] != 0) {
+                int pos = buscarCasilla(viejasClaves[i]);
+                claves[pos] = viejasClaves[i];
+                valores[pos] = viejosValores[i];
+            }
+        }
+    }
+
+    // Finalizador de MurmurHash3: dispersa bien ids secuenciales o con patrones
+    private static int mezclar(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return (int) x;
+    }
+}
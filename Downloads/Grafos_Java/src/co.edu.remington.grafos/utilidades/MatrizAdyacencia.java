@@ -5,6 +5,7 @@ import co.edu.remington.grafos.modelo.GrafoCasanare;
 /**
  * Utilidad para trabajar con la representación en matriz de adyacencia del grafo.
  * Complementa la lista de adyacencia implementada en GrafoCasanare.
+ * Los métodos reciben IDs externos; la matriz interna usa índices compactos.
  */
 public class MatrizAdyacencia {
 
@@ -29,27 +30,29 @@ public class MatrizAdyacencia {
     /**
      * Retorna true si existe una arista directa entre origen y destino.
      */
-    public boolean existeConexion(int origen, int destino) {
-        if (origen >= n || destino >= n) return false;
-        return matriz[origen][destino] > 0;
+    public boolean existeConexion(long origen, long destino) {
+        return getDistancia(origen, destino) > 0;
     }
 
     /**
      * Retorna la distancia directa entre dos nodos (0 si no hay conexión).
      */
-    public double getDistancia(int origen, int destino) {
-        if (origen >= n || destino >= n) return 0;
-        return matriz[origen][destino];
+    public double getDistancia(long origen, long destino) {
+        int i = grafo.getIndice(origen);
+        int j = grafo.getIndice(destino);
+        if (i < 0 || j < 0 || i >= n || j >= n) return 0;
+        return matriz[i][j];
     }
 
     /**
      * Retorna el grado (número de conexiones directas) de un nodo.
      */
-    public int getGrado(int nodo) {
-        if (nodo >= n) return 0;
+    public int getGrado(long nodo) {
+        int i = grafo.getIndice(nodo);
+        if (i < 0 || i >= n) return 0;
         int grado = 0;
         for (int j = 0; j < n; j++) {
-            if (matriz[nodo][j] > 0) grado++;
+            if (matriz[i][j] > 0) grado++;
         }
         return grado;
     }
@@ -61,7 +64,7 @@ public class MatrizAdyacencia {
         grafo.mostrarMatrizAdyacencia();
 
         System.out.println("Grados de cada municipio:");
-        for (int id : grafo.getIds()) {
+        for (long id : grafo.getIds()) {
             System.out.printf("  %-20s grado = %d%n",
                     grafo.getNombre(id), getGrado(id));
         }
@@ -0,0 +1,111 @@
+package co.edu.remington.grafos.utilidades;
+
+import java.util.Arrays;
+
+/**
+ * Montículo binario mínimo indexado por nodo (0..capacidad-1) con claves double.
+ * Soporta reducción de clave, por lo que cada nodo aparece a lo sumo una vez
+ * y no se crean objetos por cada relajación (a diferencia de PriorityQueue&lt;double[]&gt;).
+ */
+public class MonticuloIndexado {
+
+    private final int[] heap;       // posición -> nodo
+    private final int[] posicion;   // nodo -> posición en heap (-1 = ausente)
+    private final double[] clave;   // nodo -> clave actual
+    private int tamanio;
+
+    public MonticuloIndexado(int capacidad) {
+        heap = new int[capacidad];
+        posicion = new int[capacidad];
+        clave = new double[capacidad];
+        Arrays.fill(posicion, -1);
+    }
+
+    public boolean estaVacio() {
+        return tamanio == 0;
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    public boolean contiene(int nodo) {
+        return posicion[nodo] >= 0;
+    }
+
+    /**
+     * Inserta el nodo con la clave dada, o reduce su clave si ya está presente
+     * y la nueva es menor.
+     */
+    public void insertarOReducir(int nodo, double nuevaClave) {
+        int p = posicion[nodo];
+        if (p < 0) {
+            clave[nodo] = nuevaClave;
+            heap[tamanio] = nodo;
+            posicion[nodo] = tamanio;
+            subir(tamanio++);
+        } else if (nuevaClave < clave[nodo]) {
+            clave[nodo] = nuevaClave;
+            subir(p);
+        }
+    }
+
+    /** Clave del mínimo actual (el montículo no debe estar vacío). */
+    public double claveMinima() {
+        return clave[heap[0]];
+    }
+
+    /** Extrae y retorna el nodo con menor clave. */
+    public int extraerMin() {
+        int min = heap[0];
+        posicion[min] = -1;
+        if (--tamanio > 0) {
+            heap[0] = heap[tamanio];
+            posicion[heap[0]] = 0;
+            bajar(0);
+        }
+        return min;
+    }
+
+    /** Vacía el montículo en O(tamaño), sin recorrer toda la capacidad. */
+    public void limpiar() {
+        for (int i = 0; i < tamanio; i++) posicion[heap[i]] = -1;
+        tamanio = 0;
+    }
+
+    // =============================================
+    //  INTERNOS
+    // =============================================
+
+    private void subir(int i) {
+        int nodo = heap[i];
+        double k = clave[nodo];
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            int np = heap[padre];
+            if (clave[np] <= k) break;
+            heap[i] = np;
+            posicion[np] = i;
+            i = padre;
+        }
+        heap[i] = nodo;
+        posicion[nodo] = i;
+    }
+
+    private void bajar(int i) {
+        int nodo = heap[i];
+        double k = clave[nodo];
+        int mitad = tamanio >>> 1;
+        while (i < mitad) {
+            int hijo = 2 * i + 1;
+            int der = hijo + 1;
+            if (der < tamanio && clave[heap[der]] < clave[heap[hijo]]) hijo = der;
+            if (k <= clave[heap[hijo]]) break;
+            heap[i] = heap[hijo];
+            posicion[heap[i]] = i;
+            i = hijo;
+        }
+        heap[i] = nodo;
+        posicion[nodo] = i;
+    }
+}
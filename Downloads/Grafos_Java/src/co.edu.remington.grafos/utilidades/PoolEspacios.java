@@ -0,0 +1,44 @@
+package co.edu.remington.grafos.utilidades;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de espacios de búsqueda para consultas concurrentes. Cada llamador
+ * toma un espacio, lo usa en su hilo y lo devuelve con close():
+ *
+ *   try (EspacioBusqueda e = pool.tomar(grafo.getNumNodos())) { ... }
+ *
+ * Si el grafo creció, los espacios más pequeños se descartan al tomarlos.
+ * Se conservan a lo sumo tantos espacios como hilos suelen consultar a la vez.
+ */
+public class PoolEspacios {
+
+    private static final int MAX_LIBRES = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final ConcurrentLinkedQueue<EspacioBusqueda> libres = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numLibres = new AtomicInteger();
+
+    /**
+     * Entrega un espacio vacío con capacidad para al menos n nodos.
+     */
+    public EspacioBusqueda tomar(int n) {
+        EspacioBusqueda e;
+        while ((e = libres.poll()) != null) {
+            numLibres.decrementAndGet();
+            if (e.getCapacidad() >= n) {
+                e.reiniciar();
+                return e;
+            }
+        }
+        return new EspacioBusqueda(n, this);
+    }
+
+    void devolver(EspacioBusqueda e) {
+        if (numLibres.incrementAndGet() <= MAX_LIBRES) {
+            libres.offer(e);
+        } else {
+            numLibres.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package co.edu.remington.grafos.utilidades;
+
+import co.edu.remington.grafos.modelo.GrafoCasanare;
+import co.edu.remington.grafos.modelo.Via;
+
+import java.util.*;
+
+/**
+ * Cálculo de permutaciones de nodos que mejoran la localidad en memoria:
+ * municipios vecinos reciben índices compactos cercanos, de modo que los
+ * arreglos dist[], anterior[], etc. se recorren con menos fallos de caché.
+ *
+ * Cada método retorna orden[nuevo] = índice viejo, listo para
+ * GrafoCasanare.reordenar(orden).
+ */
+public class Reordenamiento {
+
+    private Reordenamiento() {
+    }
+
+    // =============================================
+    //  ORDEN BFS
+    // =============================================
+
+    /**
+     * Orden de visita BFS, componente por componente.
+     */
+    public static int[] bfs(GrafoCasanare grafo) {
+        int n = grafo.getNumNodos();
+        int[] orden = new int[n];
+        boolean[] visitado = new boolean[n];
+        int fin = 0;
+        for (int r = 0; r < n; r++) {
+            if (visitado[r]) continue;
+            int cabeza = fin;
+            orden[fin++] = r;
+            visitado[r] = true;
+            while (cabeza < fin) {
+                int u = orden[cabeza++];
+                for (Via v : grafo.getVecinos(u)) {
+                    int w = v.getIndiceDestino();
+                    if (v.estaActiva() && !visitado[w]) {
+                        visitado[w] = true;
+                        orden[fin++] = w;
+                    }
+                }
+            }
+        }
+        return orden;
+    }
+
+    // =============================================
+    //  CUTHILL–McKEE INVERSO
+    // =============================================
+
+    /**
+     * Reverse Cuthill–McKee: BFS desde un nodo pseudo-periférico visitando los
+     * vecinos por grado creciente, y luego se invierte el orden. Reduce el
+     * ancho de banda de la matriz de adyacencia.
+     */
+    public static int[] cuthillMcKeeInverso(GrafoCasanare grafo) {
+        int n = grafo.getNumNodos();
+        int[] grado = grados(grafo);
+        int[] orden = new int[n];
+        boolean[] visitado = new boolean[n];
+        int fin = 0;
+
+        // Raíces candidatas por grado creciente (la primera no visitada abre cada componente)
+        Integer[] porGrado = new Integer[n];
+        for (int i = 0; i < n; i++) porGrado[i] = i;
+        Arrays.sort(porGrado, Comparator.comparingInt(i -> grado[i]));
+
+        for (int candidato : porGrado) {
+            if (visitado[candidato]) continue;
+            int r = nodoPseudoPeriferico(grafo, candidato, grado);
+            int cabeza = fin;
+            orden[fin++] = r;
+            visitado[r] = true;
+            while (cabeza < fin) {
+                int u = orden[cabeza++];
+                List<Integer> vecinos = new ArrayList<>();
+                for (Via v : grafo.getVecinos(u)) {
+                    int w = v.getIndiceDestino();
+                    if (v.estaActiva() && !visitado[w]) {
+                        visitado[w] = true;
+                        vecinos.add(w);
+                    }
+                }
+                vecinos.sort(Comparator.comparingInt(w -> grado[w]));
+                for (int w : vecinos) orden[fin++] = w;
+            }
+        }
+
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int t = orden[i];
+            orden[i] = orden[j];
+            orden[j] = t;
+        }
+        return orden;
+    }
+
+    /**
+     * Heurística de George–Liu: repite BFS desde el nodo de menor grado del
+     * último nivel mientras la excentricidad siga creciendo.
+     */
+    private static int nodoPseudoPeriferico(GrafoCasanare grafo, int inicio, int[] grado) {
+        int actual = inicio;
+        int excentricidad = -1;
+        for (int intento = 0; intento < 8; intento++) {
+            Map<Integer, Integer> nivel = new HashMap<>();
+            Deque<Integer> cola = new ArrayDeque<>();
+            nivel.put(actual, 0);
+            cola.add(actual);
+            int maxNivel = 0, candidato = actual;
+            while (!cola.isEmpty()) {
+                int u = cola.poll();
+                int nu = nivel.get(u);
+                if (nu > maxNivel || (nu == maxNivel && grado[u] < grado[candidato])) {
+                    maxNivel = nu;
+                    candidato = u;
+                }
+                for (Via v : grafo.getVecinos(u)) {
+                    int w = v.getIndiceDestino();
+                    if (v.estaActiva() && !nivel.containsKey(w)) {
+                        nivel.put(w, nu + 1);
+                        cola.add(w);
+                    }
+                }
+            }
+            if (maxNivel <= excentricidad) break;
+            excentricidad = maxNivel;
+            actual = candidato;
+        }
+        return actual;
+    }
+
+    // =============================================
+    //  CURVA DE HILBERT
+    // =============================================
+
+    /**
+     * Orden según la curva de Hilbert sobre coordenadas geográficas.
+     * Los municipios sin coordenadas quedan al final en su orden actual.
+     *
+     * @param coordenadas ID externo -> {x, y} (por ejemplo {longitud, latitud})
+     */
+    public static int[] curvaHilbert(GrafoCasanare grafo, Map<Long, double[]> coordenadas) {
+        int n = grafo.getNumNodos();
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (double[] c : coordenadas.values()) {
+            minX = Math.min(minX, c[0]);
+            maxX = Math.max(maxX, c[0]);
+            minY = Math.min(minY, c[1]);
+            maxY = Math.max(maxY, c[1]);
+        }
+        final int lado = 1 << 16;
+        double escalaX = (lado - 1) / Math.max(maxX - minX, 1e-12);
+        double escalaY = (lado - 1) / Math.max(maxY - minY, 1e-12);
+
+        long[] clave = new long[n];
+        Integer[] orden = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            orden[i] = i;
+            double[] c = coordenadas.get(grafo.getIdExterno(i));
+            clave[i] = c == null ? Long.MAX_VALUE
+                    : indiceHilbert(lado, (int) ((c[0] - minX) * escalaX), (int) ((c[1] - minY) * escalaY));
+        }
+        Arrays.sort(orden, Comparator.comparingLong(i -> clave[i]));
+        int[] resultado = new int[n];
+        for (int i = 0; i < n; i++) resultado[i] = orden[i];
+        return resultado;
+    }
+
+    // Posición de (x, y) a lo largo de la curva de Hilbert que cubre un cuadrado de lado potencia de 2
+    private static long indiceHilbert(int lado, int x, int y) {
+        long d = 0;
+        for (int s = lado / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    // =============================================
+    //  MÉTRICAS DE LOCALIDAD
+    // =============================================
+
+    /**
+     * Distancia media |i - j| entre los índices compactos de los extremos de
+     * cada vía activa. Menor es mejor.
+     */
+    public static double distanciaMediaVecinos(GrafoCasanare grafo) {
+        long suma = 0, arcos = 0;
+        for (int i = 0; i < grafo.getNumNodos(); i++) {
+            for (Via v : grafo.getVecinos(i)) {
+                if (!v.estaActiva()) continue;
+                suma += Math.abs(i - v.getIndiceDestino());
+                arcos++;
+            }
+        }
+        return arcos == 0 ? 0 : (double) suma / arcos;
+    }
+
+    /**
+     * Ancho de banda: máximo |i - j| entre extremos de una vía activa.
+     */
+    public static int anchoDeBanda(GrafoCasanare grafo) {
+        int ancho = 0;
+        for (int i = 0; i < grafo.getNumNodos(); i++) {
+            for (Via v : grafo.getVecinos(i)) {
+                if (v.estaActiva()) ancho = Math.max(ancho, Math.abs(i - v.getIndiceDestino()));
+            }
+        }
+        return ancho;
+    }
+
+    private static int[] grados(GrafoCasanare grafo) {
+        int[] grado = new int[grafo.getNumNodos()];
+        for (int i = 0; i < grado.length; i++) {
+            for (Via v : grafo.getVecinos(i)) {
+                if (v.estaActiva()) grado[i]++;
+            }
+        }
+        return grado;
+    }
+}
@@ -0,0 +1,56 @@
+package co.edu.remington.grafos.utilidades;
+
+/**
+ * Conjuntos disjuntos (union-find) sobre índices 0..n-1,
+ * con unión por tamaño y compresión de caminos por división a la mitad.
+ */
+public class UnionFind {
+
+    private final int[] padre;
+    private final int[] tamanio;
+    private int conjuntos;
+
+    public UnionFind(int n) {
+        padre = new int[n];
+        tamanio = new int[n];
+        for (int i = 0; i < n; i++) {
+            padre[i] = i;
+            tamanio[i] = 1;
+        }
+        conjuntos = n;
+    }
+
+    public int buscar(int x) {
+        while (padre[x] != x) {
+            padre[x] = padre[padre[x]];
+            x = padre[x];
+        }
+        return x;
+    }
+
+    /**
+     * Une los conjuntos de a y b.
+     * @return false si ya estaban en el mismo conjunto
+     */
+    public boolean unir(int a, int b) {
+        int ra = buscar(a), rb = buscar(b);
+        if (ra == rb) return false;
+        if (tamanio[ra] < tamanio[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        padre[rb] = ra;
+        tamanio[ra] += tamanio[rb];
+        conjuntos--;
+        return true;
+    }
+
+    public int tamanioDe(int x) {
+        return tamanio[buscar(x)];
+    }
+
+    public int getNumConjuntos() {
+        return conjuntos;
+    }
+}
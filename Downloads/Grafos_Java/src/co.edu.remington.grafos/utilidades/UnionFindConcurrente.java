@@ -0,0 +1,54 @@
+package co.edu.remington.grafos.utilidades;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Conjuntos disjuntos sin bloqueos sobre índices 0..n-1, para unir desde
+ * varios hilos a la vez.
+ *
+ * La unión enlaza siempre la raíz de índice mayor bajo la de índice menor
+ * con CAS, así que nunca se forman ciclos; la compresión por división a la
+ * mitad también usa CAS y solo acorta caminos. Al terminar las uniones, la
+ * raíz de cada conjunto es su elemento de menor índice.
+ */
+public class UnionFindConcurrente {
+
+    private final AtomicIntegerArray padre;
+
+    public UnionFindConcurrente(int n) {
+        padre = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) padre.set(i, i);
+    }
+
+    public int buscar(int x) {
+        while (true) {
+            int p = padre.get(x);
+            if (p == x) return x;
+            int abuelo = padre.get(p);
+            if (p != abuelo) padre.compareAndSet(x, p, abuelo);
+            x = abuelo;
+        }
+    }
+
+    /**
+     * Une los conjuntos de a y b.
+     * @return false si ya estaban en el mismo conjunto
+     */
+    public boolean unir(int a, int b) {
+        while (true) {
+            int ra = buscar(a), rb = buscar(b);
+            if (ra == rb) return false;
+            if (ra < rb) {
+                int t = ra;
+                ra = rb;
+                rb = t;
+            }
+            // ra (mayor) pasa a colgar de rb; si otro hilo ya movió ra, se reintenta
+            if (padre.compareAndSet(ra, ra, rb)) return true;
+        }
+    }
+
+    public int getNumElementos() {
+        return padre.length();
+    }
+}